@@ -0,0 +1,249 @@
+package com.sincon.ticketing_app.assignment;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.UserRole;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import com.sincon.ticketing_app.user.AssigneeLoad;
+import com.sincon.ticketing_app.user.UserChangedEvent;
+import com.sincon.ticketing_app.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Motore dell'assegnazione automatica: tiene in memoria il carico di lavoro (ticket OPEN o ANSWERED assegnati) di
+ * ogni possibile assegnatario in un {@link WorkloadHeap}, così la scelta del meno carico costa O(1) e ogni
+ * aggiornamento O(log n), senza query (opzionale, "application.tickets.assignment-engine.enabled").
+ * Popolato all'avvio con una sola query raggruppata, aggiornato dopo il commit di ogni modifica ai ticket
+ * (assegnazione, riassegnazione, accettazione, risoluzione, cancellazione) e ai ruoli degli utenti, e riallineato
+ * periodicamente al DB (che corregge anche le modifiche fatte da altre istanze e i nuovi utenti).
+ * L'heap di un'istanza non vede le assegnazioni delle altre, per cui di default ("application.tickets.assignment-engine.
+ * multi-node", true) il motore resta spento e l'assegnazione legge i carichi dal DB sotto un lock di Postgres
+ * ({@link #ASSIGNMENT_LOCK_KEY}), corretta con qualsiasi numero di istanze. Il motore è attivo solo con enabled true
+ * e multi-node false, da impostare solo quando l'applicazione gira su un'unica istanza.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketAssignmentEngine {
+
+    // Ruoli a cui un ticket può essere assegnato automaticamente
+    public static final List<UserRole> ASSIGNEE_ROLES = List.of(UserRole.HELPER_JUNIOR, UserRole.HELPER_SENIOR, UserRole.PM, UserRole.ADMIN);
+    // Chiave del lock di Postgres che serializza le assegnazioni automatiche scelte dal DB (vedi TicketService)
+    public static final long ASSIGNMENT_LOCK_KEY = 0x7469636B65744153L;
+    // Stati che contano nel carico di lavoro
+    public static final List<TicketStatus> WORKLOAD_STATUSES = List.of(TicketStatus.OPEN, TicketStatus.ANSWERED);
+
+    private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
+
+    @Value("${application.tickets.assignment-engine.enabled:false}")
+    private boolean enabled;
+
+    // Con più istanze (default) l'heap locale non vede le assegnazioni delle altre: la scelta resta al DB, sotto lock
+    @Value("${application.tickets.assignment-engine.multi-node:true}")
+    private boolean multiNode;
+
+    private final Object resyncLock = new Object();
+    private WorkloadHeap heap = new WorkloadHeap(); // Protetto dal monitor del motore
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return isActive() && ready;
+    }
+
+    // Con multi-node l'heap non viene usato, per cui non viene nemmeno mantenuto
+    private boolean isActive() {
+        return enabled && !multiNode;
+    }
+
+    /**
+     * Sceglie l'assegnatario con meno ticket in carico (a parità, il ruolo di livello più basso e poi chi non riceve
+     * ticket da più tempo) e gli prenota atomicamente il ticket: le scelte concorrenti vedono già il suo carico
+     * aumentato, per cui un picco di creazioni si distribuisce tra gli assegnatari invece di finire tutto sullo stesso.
+     * La prenotazione viene rilasciata alla fine della transazione corrente: dopo un commit il carico è già stato
+     * aggiornato da {@link #onTicketChanged}, dopo un rollback torna com'era. Fuori da una transazione va rilasciata
+     * dal chiamante con {@link #release}.
+     *
+     * @return L'ID dell'assegnatario scelto, vuoto se non ce ne sono.
+     */
+    public Optional<String> reserveLeastLoaded() {
+        return reserve(null);
+    }
+
+    /**
+     * Come {@link #reserveLeastLoaded()}, ma sceglie solo tra i candidati indicati (es. i competenti per la categoria
+     * del ticket, vedi TicketRoutingService), in base al carico diviso per il peso di ognuno: un assegnatario con peso
+     * doppio riceve il doppio dei ticket. O(k) sul numero di candidati.
+     *
+     * @param weights Candidati con il loro peso.
+     * @return L'ID dell'assegnatario scelto, vuoto se nessun candidato è tra gli assegnatari idonei.
+     */
+    public Optional<String> reserveLeastLoaded(Map<String, Integer> weights) {
+        return reserve(weights);
+    }
+
+    private Optional<String> reserve(Map<String, Integer> weights) {
+        String userId;
+        synchronized (this) {
+            WorkloadHeap.Entry least = weights == null ? heap.peek() : leastLoadedAmong(weights);
+            if (least == null) {
+                return Optional.empty();
+            }
+            userId = least.userId;
+            heap.addReserved(userId, 1, System.currentTimeMillis());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(userId);
+                }
+            });
+        }
+        return Optional.of(userId);
+    }
+
+    /**
+     * Rilascia una prenotazione fatta da {@link #reserveLeastLoaded}.
+     */
+    public synchronized void release(String userId) {
+        heap.addReserved(userId, -1, 0);
+    }
+
+    /**
+     * @return Il carico di lavoro corrente dell'assegnatario (comprese le prenotazioni), 0 se non è tra quelli idonei.
+     */
+    public synchronized long getLoad(String userId) {
+        WorkloadHeap.Entry entry = heap.get(userId);
+        return entry != null ? entry.load + entry.reserved : 0;
+    }
+
+    /**
+     * Aggiorna il carico degli assegnatari coinvolti dopo il commit di una modifica a un ticket.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        String previousAssignee = workloadAssignee(event.getBefore());
+        String currentAssignee = workloadAssignee(event.getAfter());
+        if (Objects.equals(previousAssignee, currentAssignee)) {
+            return;
+        }
+        boolean reassigned = event.getAfter() != null && event.getAfter().getAssignedToId() != null
+                && (event.getBefore() == null || !event.getAfter().getAssignedToId().equals(event.getBefore().getAssignedToId()));
+        synchronized (this) {
+            if (previousAssignee != null) {
+                heap.addLoad(previousAssignee, -1, 0);
+            }
+            if (currentAssignee != null) {
+                heap.addLoad(currentAssignee, 1, reassigned ? System.currentTimeMillis() : 0);
+            }
+        }
+    }
+
+    /**
+     * Aggiunge, aggiorna o rimuove un assegnatario dopo il commit di un cambio di ruolo o di una cancellazione.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        if (event.isDeletion() || !ASSIGNEE_ROLES.contains(event.getRole())) {
+            synchronized (this) {
+                heap.remove(event.getUserId());
+            }
+            return;
+        }
+        long load = ticketRepository.countByAssignedTo_IdAndStatusIn(event.getUserId(), WORKLOAD_STATUSES);
+        synchronized (this) {
+            WorkloadHeap.Entry existing = heap.get(event.getUserId());
+            heap.put(event.getUserId(), event.getRole().getLevel(), load, existing != null ? existing.lastAssignedAt : 0);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncOnStartup() {
+        if (isActive()) {
+            resync();
+        } else if (enabled) {
+            log.warn("TicketAssignmentEngine: Enabled but multi-node is true, assignments read the loads from the DB");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.tickets.assignment-engine.resync-interval-ms:300000}",
+               initialDelayString = "${application.tickets.assignment-engine.resync-interval-ms:300000}")
+    public void resyncScheduled() {
+        if (isActive()) {
+            resync();
+        }
+    }
+
+    /**
+     * Ricarica assegnatari e carichi dal DB e sostituisce l'heap, mantenendo prenotazioni e date di ultima assegnazione.
+     * Come per TicketCountCache, le modifiche committate durante la query possono restare non allineate fino al
+     * riallineamento successivo.
+     */
+    public void resync() {
+        synchronized (resyncLock) {
+            long start = System.currentTimeMillis();
+            List<AssigneeLoad> loads = userRepository.findAssigneeLoads(ASSIGNEE_ROLES, WORKLOAD_STATUSES);
+            synchronized (this) {
+                WorkloadHeap fresh = new WorkloadHeap();
+                for (AssigneeLoad load : loads) {
+                    WorkloadHeap.Entry previous = heap.get(load.getUser().getId());
+                    fresh.put(load.getUser().getId(), load.getUser().getRole().getLevel(), load.getLoad(),
+                            previous != null ? previous.lastAssignedAt : 0);
+                    if (previous != null) {
+                        fresh.addReserved(previous.userId, previous.reserved, 0);
+                    }
+                }
+                heap = fresh;
+                ready = true;
+            }
+            log.debug("TicketAssignmentEngine: Resynced {} assignees in {} ms", loads.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private WorkloadHeap.Entry leastLoadedAmong(Map<String, Integer> weights) {
+        WorkloadHeap.Entry best = null;
+        double bestScore = 0;
+        for (Map.Entry<String, Integer> candidate : weights.entrySet()) {
+            WorkloadHeap.Entry entry = heap.get(candidate.getKey());
+            if (entry == null) {
+                continue;
+            }
+            double score = (double) (entry.load + entry.reserved) / Math.max(1, candidate.getValue());
+            if (best == null || score < bestScore || (score == bestScore && WorkloadHeap.ORDER.compare(entry, best) < 0)) {
+                best = entry;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // Assegnatario di cui il ticket occupa il carico di lavoro, null se il ticket non è assegnato o non è in lavorazione
+    private static String workloadAssignee(TicketSnapshot ticket) {
+        return ticket != null && WORKLOAD_STATUSES.contains(ticket.getStatus()) ? ticket.getAssignedToId() : null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sincon.ticketing_app.assignment;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/ticket-rebalance")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasAuthority('ADMIN')")
+@Tag(name = "Ticket Rebalance", description = "Ridistribuzione dei ticket in lavorazione tra gli assegnatari")
+public class TicketRebalanceController {
+
+    private final TicketRebalancer ticketRebalancer;
+
+    @PostMapping
+    @Operation(summary = "Ribilancia i ticket tra gli assegnatari",
+               description = "Assegna i ticket senza un assegnatario idoneo e sposta ticket dagli assegnatari più carichi " +
+                             "ai meno carichi, rispettando le competenze. Con dryRun=true restituisce solo il piano.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ribilanciamento calcolato (ed eseguito se non in dry-run)."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<TicketRebalanceReportDTO> rebalance(
+            @Parameter(description = "Se true calcola il piano senza spostare ticket")
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @Parameter(description = "Numero massimo di spostamenti (default e limite da configurazione)")
+            @RequestParam(required = false) Integer maxMoves) {
+        log.info("Received request to rebalance tickets (dryRun={}, maxMoves={})", dryRun, maxMoves);
+        return ResponseEntity.ok(ticketRebalancer.rebalance(dryRun, maxMoves));
+    }
+}
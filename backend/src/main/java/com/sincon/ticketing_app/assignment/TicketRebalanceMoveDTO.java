@@ -0,0 +1,16 @@
+package com.sincon.ticketing_app.assignment;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketRebalanceMoveDTO {
+    private Long ticketId;
+    private String fromUserId; // null se il ticket non aveva un assegnatario idoneo
+    private String toUserId;
+    private TicketStatus status; // Stato prima dello spostamento (un ticket ANSWERED torna OPEN)
+}
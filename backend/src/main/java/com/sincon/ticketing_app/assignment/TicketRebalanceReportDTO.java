@@ -0,0 +1,21 @@
+package com.sincon.ticketing_app.assignment;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketRebalanceReportDTO {
+    private boolean dryRun;
+    private int planned; // Spostamenti pianificati
+    private int applied; // Spostamenti eseguiti (0 in dry-run)
+    private int skipped; // Spostamenti saltati perché il ticket è cambiato nel frattempo
+    private List<TicketRebalanceMoveDTO> moves;
+    private Map<String, Long> loadsBefore; // Carico per assegnatario prima del ribilanciamento
+    private Map<String, Long> loadsAfter; // Carico per assegnatario previsto dopo il ribilanciamento
+}
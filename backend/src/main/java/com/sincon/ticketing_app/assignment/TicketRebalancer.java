@@ -0,0 +1,317 @@
+package com.sincon.ticketing_app.assignment;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.notification.EmailService;
+import com.sincon.ticketing_app.routing.TicketRoutingService;
+import com.sincon.ticketing_app.ticket.Ticket;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketRebalanceCandidate;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import com.sincon.ticketing_app.user.AssigneeLoad;
+import com.sincon.ticketing_app.user.User;
+import com.sincon.ticketing_app.user.UserChangedEvent;
+import com.sincon.ticketing_app.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Ribilanciamento dei ticket in lavorazione tra gli assegnatari.
+ * Prima assegna i ticket senza un assegnatario idoneo (es. de-assegnati dall'eliminazione di un helper o assegnati a
+ * un utente che ha perso il ruolo), poi sposta ticket dagli assegnatari più carichi ai meno carichi finché la
+ * differenza di carico non scende sotto la tolleranza. Il nuovo assegnatario rispetta le competenze
+ * (TicketRoutingService), come nell'assegnazione automatica.
+ * Il piano viene calcolato in memoria (un dry-run lo restituisce senza modificare nulla), limitato a maxMoves
+ * spostamenti, ed eseguito a blocchi in transazioni separate: ogni ticket viene ricontrollato prima dello spostamento
+ * e saltato se nel frattempo è cambiato. Alla fine ogni assegnatario coinvolto riceve un'unica email riepilogativa.
+ * Viene eseguito su richiesta di un ADMIN (POST /api/v1/ticket-rebalance, di default in dry-run). L'esecuzione
+ * periodica è disattivata di default: sposta lavoro in corso, per cui va abilitata esplicitamente insieme al cron.
+ * Solo la prima fase viene eseguita anche in automatico, dopo il commit dell'eliminazione o del cambio di ruolo di un
+ * utente, per riassegnare i ticket rimasti senza assegnatario idoneo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketRebalancer {
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final TicketRoutingService ticketRoutingService;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${application.tickets.rebalance.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.tickets.rebalance.max-moves:200}")
+    private int defaultMaxMoves;
+
+    @Value("${application.tickets.rebalance.chunk-size:50}")
+    private int chunkSize;
+
+    // Differenza di carico tra il più e il meno carico oltre la quale si spostano ticket
+    @Value("${application.tickets.rebalance.tolerance:2}")
+    private long tolerance;
+
+    // Se true si spostano anche i ticket già accettati (ANSWERED), che tornano OPEN per il nuovo assegnatario
+    @Value("${application.tickets.rebalance.include-answered:false}")
+    private boolean includeAnswered;
+
+    // Esecuzione periodica (con spostamenti reali): solo se abilitata e con un cron configurato
+    @Scheduled(cron = "${application.tickets.rebalance.cron:-}")
+    public void rebalanceScheduled() {
+        if (enabled) {
+            rebalance(false, defaultMaxMoves);
+        }
+    }
+
+    /**
+     * Assegna i ticket rimasti senza assegnatario idoneo dopo l'eliminazione di un utente o la perdita del ruolo di
+     * assegnatario, senza spostare gli altri ticket.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeletion() || !TicketAssignmentEngine.ASSIGNEE_ROLES.contains(event.getRole())) {
+            reassignOrphaned();
+        }
+    }
+
+    /**
+     * Esegue solo la prima fase del ribilanciamento: assegna tutti i ticket senza un assegnatario idoneo, a blocchi
+     * di maxMoves.
+     *
+     * @return Il numero di ticket assegnati.
+     */
+    public synchronized int reassignOrphaned() {
+        long start = System.currentTimeMillis();
+        int assigned = 0;
+        while (true) {
+            Map<String, Long> loads = currentLoads();
+            List<TicketRebalanceMoveDTO> moves = new ArrayList<>();
+            if (!loads.isEmpty()) {
+                planOrphaned(loads, Math.max(1, defaultMaxMoves), moves);
+            }
+            if (moves.isEmpty()) {
+                break;
+            }
+            int applied = execute(moves);
+            assigned += applied;
+            // Nessun progresso (i ticket cambiano nel frattempo): il resto viene ripreso al ribilanciamento successivo
+            if (applied == 0) {
+                break;
+            }
+        }
+        log.info("TicketRebalancer: Reassigned {} orphaned tickets in {} ms", assigned, System.currentTimeMillis() - start);
+        return assigned;
+    }
+
+    /**
+     * Calcola ed eventualmente esegue il ribilanciamento.
+     *
+     * @param dryRun Se true restituisce solo il piano, senza spostare ticket né inviare email.
+     * @param maxMoves Numero massimo di spostamenti (null per il valore di configurazione, che è anche il limite).
+     * @return Il piano e l'esito dell'esecuzione.
+     */
+    public synchronized TicketRebalanceReportDTO rebalance(boolean dryRun, Integer maxMoves) {
+        long start = System.currentTimeMillis();
+        int limit = Math.max(0, maxMoves != null ? Math.min(maxMoves, defaultMaxMoves) : defaultMaxMoves);
+        List<TicketStatus> movableStatuses = includeAnswered
+                ? TicketAssignmentEngine.WORKLOAD_STATUSES
+                : List.of(TicketStatus.OPEN);
+
+        Map<String, Long> loads = currentLoads();
+        Map<String, Long> loadsBefore = new LinkedHashMap<>(loads);
+        List<TicketRebalanceMoveDTO> moves = loads.isEmpty() ? List.of() : plan(loads, limit, movableStatuses);
+
+        int applied = dryRun || moves.isEmpty() ? 0 : execute(moves);
+        int skipped = dryRun ? 0 : moves.size() - applied;
+        log.info("TicketRebalancer: {} {} moves ({} applied, {} skipped) in {} ms", dryRun ? "Planned" : "Executed",
+                moves.size(), applied, skipped, System.currentTimeMillis() - start);
+        return TicketRebalanceReportDTO.builder()
+                .dryRun(dryRun)
+                .planned(moves.size())
+                .applied(applied)
+                .skipped(skipped)
+                .moves(moves)
+                .loadsBefore(loadsBefore)
+                .loadsAfter(loads)
+                .build();
+    }
+
+    private Map<String, Long> currentLoads() {
+        Map<String, Long> loads = new TreeMap<>();
+        for (AssigneeLoad load : userRepository.findAssigneeLoads(TicketAssignmentEngine.ASSIGNEE_ROLES, TicketAssignmentEngine.WORKLOAD_STATUSES)) {
+            loads.put(load.getUser().getId(), load.getLoad());
+        }
+        return loads;
+    }
+
+    /**
+     * Calcola gli spostamenti aggiornando loads con il carico previsto.
+     */
+    private List<TicketRebalanceMoveDTO> plan(Map<String, Long> loads, int limit, List<TicketStatus> movableStatuses) {
+        List<TicketRebalanceMoveDTO> moves = new ArrayList<>();
+        if (limit == 0) {
+            return moves;
+        }
+
+        // 1. Ticket senza un assegnatario idoneo
+        planOrphaned(loads, limit, moves);
+
+        // 2. Dagli assegnatari più carichi ai meno carichi; i ticket di ogni assegnatario vengono letti solo se serve
+        Map<String, Deque<TicketRebalanceCandidate>> movable = new HashMap<>();
+        Set<String> exhausted = new HashSet<>();
+        while (moves.size() < limit) {
+            long minLoad = loads.values().stream().mapToLong(Long::longValue).min().orElse(0);
+            String donor = loads.entrySet().stream()
+                    .filter(entry -> !exhausted.contains(entry.getKey()) && entry.getValue() - minLoad > tolerance)
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            if (donor == null) {
+                break;
+            }
+            Deque<TicketRebalanceCandidate> tickets = movable.computeIfAbsent(donor, id -> new ArrayDeque<>(
+                    ticketRepository.findAssignedRebalanceCandidates(id, movableStatuses, PageRequest.of(0, limit))));
+            TicketRebalanceCandidate ticket = tickets.poll();
+            if (ticket == null) {
+                exhausted.add(donor);
+                continue;
+            }
+            String target = pickTarget(ticket, loads, donor);
+            // Lo spostamento deve ridurre il divario, altrimenti (es. nessun altro competente scarico) il ticket resta
+            if (target == null || loads.get(target) + 1 >= loads.get(donor)) {
+                continue;
+            }
+            loads.merge(donor, -1L, Long::sum);
+            loads.merge(target, 1L, Long::sum);
+            moves.add(new TicketRebalanceMoveDTO(ticket.getId(), donor, target, ticket.getStatus()));
+        }
+        return moves;
+    }
+
+    private void planOrphaned(Map<String, Long> loads, int limit, List<TicketRebalanceMoveDTO> moves) {
+        for (TicketRebalanceCandidate ticket : ticketRepository.findOrphanedRebalanceCandidates(
+                TicketAssignmentEngine.ASSIGNEE_ROLES, TicketAssignmentEngine.WORKLOAD_STATUSES, PageRequest.of(0, limit))) {
+            String target = pickTarget(ticket, loads, null);
+            loads.merge(target, 1L, Long::sum);
+            moves.add(new TicketRebalanceMoveDTO(ticket.getId(), ticket.getAssignedToId(), target, ticket.getStatus()));
+        }
+    }
+
+    /**
+     * Esegue gli spostamenti a blocchi e invia le email riepilogative.
+     *
+     * @return Il numero di spostamenti effettuati (gli altri sono stati saltati).
+     */
+    private int execute(List<TicketRebalanceMoveDTO> moves) {
+        int applied = 0;
+        Map<String, List<TicketSnapshot>> received = new HashMap<>();
+        Map<String, List<TicketSnapshot>> removed = new HashMap<>();
+        for (int from = 0; from < moves.size(); from += Math.max(1, chunkSize)) {
+            List<TicketRebalanceMoveDTO> chunk = moves.subList(from, Math.min(moves.size(), from + Math.max(1, chunkSize)));
+            List<TicketChangedEvent> changes = applyChunk(chunk);
+            for (TicketChangedEvent change : changes) {
+                received.computeIfAbsent(change.getAfter().getAssignedToId(), id -> new ArrayList<>()).add(change.getAfter());
+                if (change.getBefore().getAssignedToId() != null) {
+                    removed.computeIfAbsent(change.getBefore().getAssignedToId(), id -> new ArrayList<>()).add(change.getBefore());
+                }
+            }
+            applied += changes.size();
+        }
+        notifyAssignees(received, removed);
+        return applied;
+    }
+
+    /**
+     * Il meno carico (in proporzione al peso) tra i competenti per il ticket, o tra tutti se nessun competente è idoneo.
+     */
+    private String pickTarget(TicketRebalanceCandidate ticket, Map<String, Long> loads, String excluded) {
+        Map<String, Integer> skilled = new HashMap<>(ticketRoutingService.getCandidates(ticket.getCategoryId(), ticket.getServiceId()));
+        skilled.keySet().retainAll(loads.keySet());
+        skilled.remove(excluded);
+        Set<String> pool = skilled.isEmpty() ? loads.keySet() : skilled.keySet();
+        String best = null;
+        double bestScore = 0;
+        for (String userId : pool) {
+            if (userId.equals(excluded)) {
+                continue;
+            }
+            double score = (double) loads.get(userId) / skilled.getOrDefault(userId, 1);
+            if (best == null || score < bestScore) {
+                best = userId;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Esegue un blocco di spostamenti in una transazione. Il lock delle assegnazioni automatiche (vedi TicketService)
+     * evita che un'assegnazione letta dal DB scelga in base ai carichi di prima del blocco.
+     *
+     * @return Le modifiche effettuate (i ticket cambiati nel frattempo vengono saltati).
+     */
+    private List<TicketChangedEvent> applyChunk(List<TicketRebalanceMoveDTO> chunk) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<TicketChangedEvent> changes = tx.execute(status -> {
+            ticketRepository.acquireAdvisoryXactLock(TicketAssignmentEngine.ASSIGNMENT_LOCK_KEY);
+            List<TicketChangedEvent> applied = new ArrayList<>();
+            Date now = new Date();
+            for (TicketRebalanceMoveDTO move : chunk) {
+                Ticket ticket = ticketRepository.findDetailedById(move.getTicketId()).orElse(null);
+                String currentAssignee = ticket != null && ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+                if (ticket == null || ticket.getStatus() != move.getStatus() || !Objects.equals(currentAssignee, move.getFromUserId())) {
+                    log.debug("TicketRebalancer: Ticket {} changed since planning, skipping", move.getTicketId());
+                    continue;
+                }
+                TicketSnapshot before = TicketSnapshot.of(ticket);
+                ticket.setAssignedTo(userRepository.getReferenceById(move.getToUserId()));
+                ticket.setAssignedDate(now);
+                if (ticket.getStatus() == TicketStatus.ANSWERED) {
+                    ticket.setStatus(TicketStatus.OPEN);
+                }
+                TicketChangedEvent change = new TicketChangedEvent(before, TicketSnapshot.of(ticketRepository.save(ticket)));
+                eventPublisher.publishEvent(change);
+                applied.add(change);
+            }
+            return applied;
+        });
+        return changes != null ? changes : List.of();
+    }
+
+    private void notifyAssignees(Map<String, List<TicketSnapshot>> received, Map<String, List<TicketSnapshot>> removed) {
+        Set<String> affected = new HashSet<>(received.keySet());
+        affected.addAll(removed.keySet());
+        for (User assignee : userRepository.findAllById(affected)) {
+            emailService.sendTicketsRebalancedEmail(assignee,
+                    received.getOrDefault(assignee.getId(), List.of()),
+                    removed.getOrDefault(assignee.getId(), List.of()));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.sincon.ticketing_app.assignment;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Min-heap indicizzato dei possibili assegnatari, ordinato per carico di lavoro (compresi i ticket prenotati e non
+ * ancora committati), poi per livello del ruolo
+ * (UserRole.getLevel(): prima gli helper junior, per ultimi gli admin), poi per ultima assegnazione (prima chi non
+ * riceve ticket da più tempo). La mappa userId -> posizione permette di aggiornare il carico di un utente in O(log n).
+ * Non thread-safe: l'accesso è sincronizzato da {@link TicketAssignmentEngine}.
+ */
+class WorkloadHeap {
+
+    static final Comparator<Entry> ORDER = Comparator
+            .comparingLong((Entry entry) -> entry.load + entry.reserved)
+            .thenComparingInt(entry -> entry.roleLevel)
+            .thenComparingLong(entry -> entry.lastAssignedAt)
+            .thenComparing(entry -> entry.userId);
+
+    private Entry[] heap = new Entry[16];
+    private int size;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    static class Entry {
+        final String userId;
+        int roleLevel;
+        long load;
+        long reserved; // Assegnazioni scelte ma non ancora committate
+        long lastAssignedAt;
+        private int index;
+
+        Entry(String userId, int roleLevel, long load, long lastAssignedAt) {
+            this.userId = userId;
+            this.roleLevel = roleLevel;
+            this.load = load;
+            this.lastAssignedAt = lastAssignedAt;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(String userId) {
+        return entries.containsKey(userId);
+    }
+
+    Entry get(String userId) {
+        return entries.get(userId);
+    }
+
+    /**
+     * @return L'assegnatario meno carico, null se non ce ne sono.
+     */
+    Entry peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Inserisce un assegnatario o, se è già presente, ne aggiorna livello e carico.
+     */
+    void put(String userId, int roleLevel, long load, long lastAssignedAt) {
+        Entry entry = entries.get(userId);
+        if (entry != null) {
+            entry.roleLevel = roleLevel;
+            entry.load = load;
+            entry.lastAssignedAt = lastAssignedAt;
+            fix(entry.index);
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entry = new Entry(userId, roleLevel, load, lastAssignedAt);
+        entries.put(userId, entry);
+        entry.index = size;
+        heap[size++] = entry;
+        siftUp(entry.index);
+    }
+
+    /**
+     * Somma delta al carico dell'assegnatario (ignorato se non è tra quelli idonei).
+     * @param assignedAt Se maggiore di 0, nuova data di ultima assegnazione.
+     */
+    void addLoad(String userId, long delta, long assignedAt) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        entry.load = Math.max(0, entry.load + delta);
+        if (assignedAt > 0) {
+            entry.lastAssignedAt = assignedAt;
+        }
+        fix(entry.index);
+    }
+
+    /**
+     * Somma delta alle assegnazioni prenotate dell'assegnatario (ignorato se non è tra quelli idonei).
+     * @param assignedAt Se maggiore di 0, nuova data di ultima assegnazione.
+     */
+    void addReserved(String userId, long delta, long assignedAt) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        entry.reserved = Math.max(0, entry.reserved + delta);
+        if (assignedAt > 0) {
+            entry.lastAssignedAt = assignedAt;
+        }
+        fix(entry.index);
+    }
+
+    void remove(String userId) {
+        Entry entry = entries.remove(userId);
+        if (entry == null) {
+            return;
+        }
+        int index = entry.index;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (index < size) {
+            place(last, index);
+            fix(index);
+        }
+    }
+
+    private void fix(int index) {
+        if (!siftUp(index)) {
+            siftDown(index);
+        }
+    }
+
+    private boolean siftUp(int index) {
+        Entry entry = heap[index];
+        int start = index;
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (ORDER.compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+        return index != start;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ORDER.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (ORDER.compare(heap[child], entry) >= 0) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.index = index;
+    }
+}
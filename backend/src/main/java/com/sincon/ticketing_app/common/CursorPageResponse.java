@@ -0,0 +1,20 @@
+package com.sincon.ticketing_app.common;
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;     // Token opaco da passare come 'after' per la pagina successiva
+    private String previousCursor; // Token opaco da passare come 'before' per la pagina precedente
+    private boolean hasNext;
+    private boolean hasPrevious;
+    private Long totalElements;    // Valorizzato solo se richiesto esplicitamente (evita il COUNT)
+}
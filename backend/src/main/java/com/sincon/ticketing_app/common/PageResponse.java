@@ -17,4 +17,6 @@ public class PageResponse<T>{
     private int totalPages;
     private boolean first;
     private boolean last;
+    // true se totalElements/totalPages sono una stima (statistiche del planner o conteggio in cache) e non un conteggio esatto
+    private boolean estimated;
 }
@@ -1,6 +1,9 @@
 package com.sincon.ticketing_app.config;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -13,4 +16,12 @@ public class BeansConfig {
     public AuditorAware<String> auditorAware() {
         return new ApplicationAuditAware();
     }
+
+    // I DTO annotati con @JsonFilter (es. TicketResponseDTO) vengono serializzati per intero
+    // quando la risposta non specifica un filtro (vedi TicketFields)
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
 }
@@ -0,0 +1,208 @@
+package com.sincon.ticketing_app.config;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Oggetti di schema specifici di Postgres che "ddl-auto: update" non sa generare (trigger, indici GIN, ...).
+ * Tutte le istruzioni sono idempotenti e vengono eseguite ad ogni avvio, dopo che Hibernate ha aggiornato le tabelle.
+ * Se fallisce un'istruzione necessaria al funzionamento (es. pg_trgm non installabile, trigger non creabile) l'avvio
+ * viene interrotto: l'applicazione altrimenti partirebbe con la ricerca non funzionante. Gli indici usati solo per
+ * le prestazioni sono facoltativi: un errore viene registrato e l'avvio prosegue.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseSchemaInitializer implements ApplicationRunner {
+
+    private static final String TS_CONFIG = PostgresSearchFunctionContributor.TEXT_SEARCH_CONFIG;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        fullTextSearchStatements().forEach(this::execute);
+        sortStatements().forEach(this::execute);
+        sortIndexStatements().forEach(this::executeOptional);
+        draftStatements().forEach(this::executeOptional);
+        helperSkillStatements().forEach(this::execute);
+    }
+
+    /**
+     * Ricerca full-text e fuzzy sui ticket, ricalcolate da trigger a ogni modifica:
+     * - search_vector contiene titolo (peso A), nome categoria e servizio (peso B) e descrizione (peso C), indicizzata con GIN;
+     * - search_text contiene gli stessi campi in chiaro, indicizzata con GIN gin_trgm_ops per la ricerca a trigrammi.
+     */
+    private List<String> fullTextSearchStatements() {
+        return List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "ALTER TABLE tickets ADD COLUMN IF NOT EXISTS search_vector tsvector",
+            "ALTER TABLE tickets ADD COLUMN IF NOT EXISTS search_text text",
+            """
+            CREATE OR REPLACE FUNCTION tickets_search_vector_refresh() RETURNS trigger AS $$
+            DECLARE
+                category_name text := (SELECT c.name FROM categories c WHERE c.id = NEW.category_id);
+                service_title text := (SELECT s.title FROM support_services s WHERE s.id = NEW.service_id);
+            BEGIN
+                NEW.search_vector :=
+                    setweight(to_tsvector('%1$s', coalesce(NEW.title, '')), 'A') ||
+                    setweight(to_tsvector('%1$s', coalesce(category_name, '')), 'B') ||
+                    setweight(to_tsvector('%1$s', coalesce(service_title, '')), 'B') ||
+                    setweight(to_tsvector('%1$s', coalesce(NEW.description, '')), 'C');
+                NEW.search_text := lower(concat_ws(' ', NEW.title, category_name, service_title, NEW.description));
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql
+            """.formatted(TS_CONFIG),
+            "DROP TRIGGER IF EXISTS trg_tickets_search_vector ON tickets",
+            """
+            CREATE TRIGGER trg_tickets_search_vector
+                BEFORE INSERT OR UPDATE OF title, description, category_id, service_id ON tickets
+                FOR EACH ROW EXECUTE FUNCTION tickets_search_vector_refresh()
+            """,
+            // Se cambia il nome di una categoria o di un servizio, i ticket collegati vanno reindicizzati
+            """
+            CREATE OR REPLACE FUNCTION categories_search_vector_cascade() RETURNS trigger AS $$
+            BEGIN
+                UPDATE tickets SET title = title WHERE category_id = NEW.id;
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql
+            """,
+            "DROP TRIGGER IF EXISTS trg_categories_search_vector ON categories",
+            """
+            CREATE TRIGGER trg_categories_search_vector
+                AFTER UPDATE OF name ON categories
+                FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+                EXECUTE FUNCTION categories_search_vector_cascade()
+            """,
+            """
+            CREATE OR REPLACE FUNCTION support_services_search_vector_cascade() RETURNS trigger AS $$
+            BEGIN
+                UPDATE tickets SET title = title WHERE service_id = NEW.id;
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql
+            """,
+            "DROP TRIGGER IF EXISTS trg_support_services_search_vector ON support_services",
+            """
+            CREATE TRIGGER trg_support_services_search_vector
+                AFTER UPDATE OF title ON support_services
+                FOR EACH ROW WHEN (OLD.title IS DISTINCT FROM NEW.title)
+                EXECUTE FUNCTION support_services_search_vector_cascade()
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_tickets_search_vector ON tickets USING GIN (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_tickets_search_text_trgm ON tickets USING GIN (search_text gin_trgm_ops)",
+            // Popola i ticket esistenti prima dell'introduzione del trigger
+            "UPDATE tickets SET title = title WHERE search_vector IS NULL OR search_text IS NULL"
+        );
+    }
+
+    /**
+     * Popola priority_rank e status_rank (vedi Ticket), usati dagli ordinamenti selezionabili dal client (vedi TicketSort),
+     * per i ticket creati prima della loro introduzione.
+     */
+    private List<String> sortStatements() {
+        String priorityRanks = Arrays.stream(TicketPriority.values())
+                .map(priority -> "WHEN '%s' THEN %d".formatted(priority.name(), priority.ordinal()))
+                .collect(Collectors.joining(" "));
+        String statusRanks = Arrays.stream(TicketStatus.values())
+                .map(status -> "WHEN '%s' THEN %d".formatted(status.name(), status.getRank()))
+                .collect(Collectors.joining(" "));
+        return List.of(
+            "UPDATE tickets SET priority_rank = CASE priority " + priorityRanks + " END " +
+            "WHERE priority IS NOT NULL AND priority_rank IS NULL",
+            "UPDATE tickets SET status_rank = CASE status " + statusRanks + " END " +
+            "WHERE status IS NOT NULL AND status_rank IS NULL"
+        );
+    }
+
+    /**
+     * Indici degli ordinamenti che @Index non sa esprimere:
+     * - ultima attività (coalesce(last_modified_date, created_date)), l'espressione usata nell'ORDER BY;
+     * - assigned_date DESC con i ticket non assegnati in fondo (ASC è servito da idx_tickets_assigned_date_id);
+     * e rimozione degli indici sostituiti da questi.
+     */
+    private List<String> sortIndexStatements() {
+        return List.of(
+            """
+            CREATE INDEX IF NOT EXISTS idx_tickets_last_activity_id ON tickets
+                ((coalesce(last_modified_date, created_date)) DESC, id DESC)
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_tickets_assigned_date_nulls_last_id ON tickets (assigned_date DESC NULLS LAST, id DESC)",
+            "DROP INDEX IF EXISTS idx_tickets_last_modified_date_id",
+            "DROP INDEX IF EXISTS idx_tickets_status_id"
+        );
+    }
+
+    /**
+     * Indice per la lista paginata delle bozze di un utente (TicketRepository.findDraftSummaries), ordinata per ultima
+     * modifica: last_modified_date è null finché la bozza non viene modificata, per cui l'indice è sull'espressione
+     * usata nell'ORDER BY. Parziale sulle bozze, che sono le uniche lette in questo ordine.
+     */
+    private List<String> draftStatements() {
+        return List.of(
+            """
+            CREATE INDEX IF NOT EXISTS idx_tickets_owner_status_modified ON tickets
+                (user_id, status, (coalesce(last_modified_date, created_date)) DESC, id DESC)
+                WHERE status = 'DRAFT'
+            """
+        );
+    }
+
+    /**
+     * Unicità delle competenze (vedi HelperSkill): una per utente e categoria e una per utente e servizio.
+     * Una delle due colonne è sempre null e Postgres considera distinti i null, per cui servono due indici parziali
+     * al posto del vincolo su (user_id, category_id, service_id). Prima di crearli vengono eliminati gli eventuali
+     * duplicati già salvati, tenendo la competenza più recente.
+     */
+    private List<String> helperSkillStatements() {
+        return List.of(
+            "ALTER TABLE helper_skills DROP CONSTRAINT IF EXISTS uk_helper_skills_user_category_service",
+            """
+            DELETE FROM helper_skills s USING helper_skills newer
+            WHERE newer.user_id = s.user_id AND newer.id > s.id
+              AND ((s.service_id IS NULL AND newer.service_id IS NULL AND newer.category_id = s.category_id)
+                OR (s.category_id IS NULL AND newer.category_id IS NULL AND newer.service_id = s.service_id))
+            """,
+            """
+            CREATE UNIQUE INDEX IF NOT EXISTS uk_helper_skills_user_category ON helper_skills (user_id, category_id)
+                WHERE service_id IS NULL
+            """,
+            """
+            CREATE UNIQUE INDEX IF NOT EXISTS uk_helper_skills_user_service ON helper_skills (user_id, service_id)
+                WHERE category_id IS NULL
+            """
+        );
+    }
+
+    private void execute(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("DatabaseSchemaInitializer: Failed to execute required statement: " + sql, e);
+        }
+    }
+
+    private void executeOptional(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            log.error("DatabaseSchemaInitializer: Failed to execute optional statement: {}", sql, e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sincon.ticketing_app.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registra in Hibernate le funzioni di ricerca specifiche di Postgres, così da poterle usare nelle Specification.
+ * Gli operatori vengono resi in forma nativa (es. "@@") perché solo in questa forma Postgres usa gli indici GIN.
+ * Le colonne search_vector e search_text non sono mappate su Ticket (ogni caricamento del ticket le leggerebbe):
+ * le funzioni ricevono l'id del ticket e scrivono la colonna sullo stesso alias di tabella.
+ * Registrato tramite META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class PostgresSearchFunctionContributor implements FunctionContributor {
+
+    // Configurazione di text search usata sia dal trigger che dalle query: devono coincidere
+    public static final String TEXT_SEARCH_CONFIG = "italian";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var typeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = typeRegistry.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = typeRegistry.resolve(StandardBasicTypes.DOUBLE);
+        var functionRegistry = functionContributions.getFunctionRegistry();
+
+        // fts_match(ticket.id, 'term:* & other:*')
+        functionRegistry.register("fts_match", new TicketColumnFunction("fts_match", "search_vector",
+                "(?1 @@ to_tsquery('" + TEXT_SEARCH_CONFIG + "', ?2))", booleanType));
+        // fts_rank(ticket.id, 'term:* & other:*')
+        functionRegistry.register("fts_rank", new TicketColumnFunction("fts_rank", "search_vector",
+                "ts_rank_cd(?1, to_tsquery('" + TEXT_SEARCH_CONFIG + "', ?2))", doubleType));
+        // trgm_word_match(ticket.id, 'testo') -> usa l'indice GIN gin_trgm_ops e la soglia pg_trgm.word_similarity_threshold
+        functionRegistry.register("trgm_word_match", new TicketColumnFunction("trgm_word_match", "search_text",
+                "(?2 <% ?1)", booleanType));
+        // trgm_word_similarity(ticket.id, 'testo')
+        functionRegistry.register("trgm_word_similarity", new TicketColumnFunction("trgm_word_similarity", "search_text",
+                "word_similarity(?2, ?1)", doubleType));
+    }
+
+    /**
+     * Funzione con due argomenti, l'id del ticket e un valore: nel pattern ?1 diventa la colonna indicata,
+     * qualificata con l'alias della tabella dell'id, e ?2 il valore.
+     */
+    private static class TicketColumnFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String column;
+        private final String pattern;
+
+        TicketColumnFunction(String name, String column, String pattern, BasicType<?> returnType) {
+            super(name, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType), null);
+            this.column = column;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference id = ((Expression) arguments.get(0)).getColumnReference();
+            if (id == null) {
+                throw new IllegalArgumentException(getName() + ": il primo argomento deve essere l'id del ticket");
+            }
+            String columnSql = id.getQualifier() != null ? id.getQualifier() + "." + column : column;
+            int start = 0;
+            for (int i = pattern.indexOf('?'); i >= 0; i = pattern.indexOf('?', start)) {
+                sqlAppender.appendSql(pattern.substring(start, i));
+                if (pattern.charAt(i + 1) == '1') {
+                    sqlAppender.appendSql(columnSql);
+                } else {
+                    arguments.get(1).accept(walker);
+                }
+                start = i + 2;
+            }
+            sqlAppender.appendSql(pattern.substring(start));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.sincon.ticketing_app.enums;
+
+// Dimensione per cui suddividere le metriche SLA
+public enum SlaGroupBy {
+    ALL,
+    CATEGORY,
+    PRIORITY,
+    ASSIGNEE
+}
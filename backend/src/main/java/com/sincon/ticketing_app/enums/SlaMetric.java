@@ -0,0 +1,8 @@
+package com.sincon.ticketing_app.enums;
+
+// Durate misurate dalle metriche SLA (vedi sla.SlaMetricsService)
+public enum SlaMetric {
+    TIME_TO_ASSIGN, // Dalla creazione all'assegnazione
+    TIME_TO_ACCEPT, // Dall'assegnazione all'accettazione (OPEN -> ANSWERED)
+    TIME_TO_SOLVE   // Dalla creazione alla risoluzione
+}
@@ -0,0 +1,11 @@
+package com.sincon.ticketing_app.enums;
+
+// Ambiti dei contatori di ticket (vedi ticketCounter.TicketCounter): cosa identifica lo scopeId di ogni riga
+public enum TicketCounterScope {
+    GLOBAL,         // Tutti i ticket, scopeId fisso
+    OWNER,          // Ticket creati dall'utente, scopeId = ID utente
+    ASSIGNEE,       // Ticket assegnati all'utente, scopeId = ID utente
+    EMAIL,          // Ticket con l'email indicata, scopeId = email del ticket
+    OWNER_EMAIL,    // Ticket creati dall'utente e con la sua email (intersezione OWNER/EMAIL), scopeId = ID utente + email
+    OWNER_ASSIGNEE  // Ticket creati dall'utente e assegnati a lui stesso (intersezione OWNER/ASSIGNEE), scopeId = ID utente
+}
@@ -0,0 +1,6 @@
+package com.sincon.ticketing_app.enums;
+
+public enum TicketExportFormat {
+    CSV,   // text/csv, una riga di intestazione e una riga per ticket
+    NDJSON // application/x-ndjson, un oggetto JSON per riga
+}
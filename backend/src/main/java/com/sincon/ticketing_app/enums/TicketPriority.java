@@ -1,5 +1,6 @@
 package com.sincon.ticketing_app.enums;
 
+// L'ordine delle costanti è l'ordine di gravità (usato come Ticket.priorityRank per l'ordinamento)
 public enum TicketPriority {
     LOW("Bassa"),
     MEDIUM("Media"),
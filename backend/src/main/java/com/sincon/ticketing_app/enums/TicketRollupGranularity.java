@@ -0,0 +1,8 @@
+package com.sincon.ticketing_app.enums;
+
+// Ampiezza dei periodi restituiti dalle serie storiche dei ticket (vedi ticketRollup)
+public enum TicketRollupGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
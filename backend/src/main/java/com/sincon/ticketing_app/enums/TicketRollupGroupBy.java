@@ -0,0 +1,9 @@
+package com.sincon.ticketing_app.enums;
+
+// Dimensione per cui suddividere le serie storiche dei ticket (vedi ticketRollup)
+public enum TicketRollupGroupBy {
+    NONE,
+    CATEGORY,
+    SUPPORT_SERVICE,
+    PRIORITY
+}
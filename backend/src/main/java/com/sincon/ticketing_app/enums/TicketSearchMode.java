@@ -0,0 +1,6 @@
+package com.sincon.ticketing_app.enums;
+
+public enum TicketSearchMode {
+    FULLTEXT, // Ricerca per parole (tsvector), con stemming e corrispondenza per prefisso
+    FUZZY     // Ricerca tollerante agli errori di battitura (similarità a trigrammi)
+}
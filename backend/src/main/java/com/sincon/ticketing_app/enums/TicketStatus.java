@@ -1,8 +1,20 @@
 package com.sincon.ticketing_app.enums;
 
 public enum TicketStatus {
-    OPEN,
-    ANSWERED,
-    SOLVED,
-    DRAFT
+    OPEN(1),
+    ANSWERED(2),
+    SOLVED(3),
+    DRAFT(0);
+
+    // Posizione nel ciclo di vita del ticket (bozza, aperto, preso in carico, risolto), usata come Ticket.statusRank
+    // per l'ordinamento: l'ordine delle costanti non si può cambiare perché è usato come indice (vedi TicketCountCache)
+    private final int rank;
+
+    TicketStatus(int rank) {
+        this.rank = rank;
+    }
+
+    public int getRank() {
+        return rank;
+    }
 }
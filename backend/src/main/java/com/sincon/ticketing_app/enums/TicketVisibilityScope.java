@@ -0,0 +1,9 @@
+package com.sincon.ticketing_app.enums;
+
+// Insieme di ticket visibile a un utente in base al ruolo (vedi ticket.TicketViewer)
+public enum TicketVisibilityScope {
+    ALL,                  // ADMIN, PM
+    ASSIGNED_OR_OWN_DRAFT, // HELPER_JUNIOR, HELPER_SENIOR
+    OWNED_OR_EMAIL,       // USER
+    NONE
+}
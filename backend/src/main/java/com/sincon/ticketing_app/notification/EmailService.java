@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import com.sincon.ticketing_app.ticket.Ticket;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
 import com.sincon.ticketing_app.user.User;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -15,6 +16,7 @@ import org.springframework.scheduling.annotation.Async;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -253,4 +255,29 @@ public class EmailService {
             sendValidatedEmail(ticket.getAssignedTo().getEmail(), assigneeSubject, assigneeBody);
         }
     }
+
+    /**
+     * Invia a un assegnatario un'unica email con tutti i ticket ricevuti o tolti da un ribilanciamento
+     * (vedi TicketRebalancer), invece di una per ticket.
+     * @param assignee L'assegnatario.
+     * @param received I ticket ora assegnati a lui.
+     * @param removed I ticket riassegnati ad altri.
+     */
+    public void sendTicketsRebalancedEmail(User assignee, List<TicketSnapshot> received, List<TicketSnapshot> removed) {
+        if (assignee == null || assignee.getEmail() == null || (received.isEmpty() && removed.isEmpty())) {
+            return;
+        }
+        StringBuilder body = new StringBuilder("I ticket in carico sono stati ridistribuiti tra gli assegnatari.\n");
+        if (!received.isEmpty()) {
+            body.append("\nTicket assegnati a te (").append(received.size()).append("):\n");
+            received.forEach(ticket -> body.append(String.format("- #%d %s [%s]%n", ticket.getId(), ticket.getTitle(), ticket.getStatus())));
+        }
+        if (!removed.isEmpty()) {
+            body.append("\nTicket riassegnati ad altri (").append(removed.size()).append("):\n");
+            removed.forEach(ticket -> body.append(String.format("- #%d %s%n", ticket.getId(), ticket.getTitle())));
+        }
+        body.append("\nAccedi al sistema di Ticketing per i dettagli.\n");
+        String subject = "Ticket Ridistribuiti: " + received.size() + " assegnati, " + removed.size() + " riassegnati";
+        sendValidatedEmail(assignee.getEmail(), subject, body.toString());
+    }
 }
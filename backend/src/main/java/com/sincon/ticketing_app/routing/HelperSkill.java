@@ -0,0 +1,51 @@
+package com.sincon.ticketing_app.routing;
+
+import com.sincon.ticketing_app.category.Category;
+import com.sincon.ticketing_app.common.Auditable;
+import com.sincon.ticketing_app.supportservice.SupportService;
+import com.sincon.ticketing_app.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Competenza dichiarata da un assegnatario per una categoria o per un singolo servizio di supporto, con un peso che
+ * indica quanta parte dei ticket di quell'ambito può prendere rispetto agli altri (vedi TicketRoutingService).
+ * Le competenze vengono eliminate insieme all'utente, alla categoria o al servizio.
+ * Un utente ha al più una competenza per categoria e una per servizio: gli indici univoci sono creati da
+ * DatabaseSchemaInitializer, perché una delle due colonne è sempre null e un vincolo su tutte e tre non scatterebbe.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "helper_skills")
+public class HelperSkill extends Auditable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    // Categoria della competenza (null se la competenza è su un servizio)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Category category;
+
+    // Servizio della competenza (null se la competenza è su tutta la categoria)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SupportService service;
+
+    @Column(nullable = false)
+    private Integer weight;
+}
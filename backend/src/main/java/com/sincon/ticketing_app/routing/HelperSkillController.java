@@ -0,0 +1,90 @@
+package com.sincon.ticketing_app.routing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/helper-skills")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasAuthority('ADMIN')")
+@Tag(name = "Helper Skills", description = "Competenze degli assegnatari per categoria e servizio, usate dall'assegnazione automatica")
+public class HelperSkillController {
+
+    private final TicketRoutingService ticketRoutingService;
+
+    @GetMapping
+    @Operation(summary = "Recupera tutte le competenze degli assegnatari")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Competenze recuperate con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<List<HelperSkillDTO>> getSkills() {
+        return ResponseEntity.ok(ticketRoutingService.getSkills());
+    }
+
+    /**
+     * Crea una competenza o ne aggiorna il peso se l'assegnatario ce l'ha già per la stessa categoria o servizio.
+     */
+    @PutMapping
+    @Operation(summary = "Crea o aggiorna una competenza",
+               description = "Indicare la categoria oppure il servizio. Il peso (1-100) determina la quota di ticket " +
+                             "dell'ambito che l'assegnatario riceve rispetto agli altri competenti.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Competenza salvata con successo."),
+        @ApiResponse(responseCode = "400", description = "Dati non validi o utente che non può ricevere ticket."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<HelperSkillDTO> saveSkill(@RequestBody @Valid HelperSkillRequestDTO request) {
+        log.info("Received request to save skill for user {}", request.getUserId());
+        return ResponseEntity.ok(ticketRoutingService.saveSkill(request));
+    }
+
+    @DeleteMapping("/{skillId}")
+    @Operation(summary = "Elimina una competenza")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Competenza eliminata con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<Void> deleteSkill(@PathVariable @Parameter(description = "ID della competenza") Long skillId) {
+        log.info("Received request to delete skill {}", skillId);
+        ticketRoutingService.deleteSkill(skillId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/routing-table")
+    @Operation(summary = "Riepilogo della tabella di routing in uso")
+    public ResponseEntity<RoutingTableSummaryDTO> getRoutingTable() {
+        return ResponseEntity.ok(ticketRoutingService.getSummary());
+    }
+
+    /**
+     * Ricompila la tabella di routing dalle competenze salvate, senza attendere la ricompilazione periodica
+     * (es. dopo modifiche fatte direttamente sul DB). Con più istanze agisce solo su quella che riceve la richiesta.
+     */
+    @PostMapping("/routing-table/reload")
+    @Operation(summary = "Ricarica la tabella di routing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tabella ricompilata con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<RoutingTableSummaryDTO> reloadRoutingTable() {
+        log.info("Received request to reload the routing table");
+        return ResponseEntity.ok(ticketRoutingService.reload());
+    }
+}
@@ -0,0 +1,19 @@
+package com.sincon.ticketing_app.routing;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HelperSkillDTO {
+    private Long id;
+    private String userId;
+    private String userEmail;
+    private Long categoryId;
+    private String categoryName;
+    private Long supportServiceId;
+    private String supportServiceName;
+    private Integer weight;
+}
@@ -0,0 +1,26 @@
+package com.sincon.ticketing_app.routing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HelperSkillRepository extends JpaRepository<HelperSkill, Long> {
+
+    // Tutte le competenze con utente, categoria e servizio, per l'elenco degli admin
+    @Query("SELECT s FROM HelperSkill s JOIN FETCH s.user LEFT JOIN FETCH s.category LEFT JOIN FETCH s.service " +
+            "ORDER BY s.user.email, s.id")
+    List<HelperSkill> findAllDetailed();
+
+    // Competenze degli utenti che possono ancora ricevere ticket, per la tabella di routing
+    @Query("SELECT u.id AS userId, c.id AS categoryId, sv.id AS serviceId, s.weight AS weight " +
+            "FROM HelperSkill s JOIN s.user u LEFT JOIN s.category c LEFT JOIN s.service sv " +
+            "WHERE u.role IN (com.sincon.ticketing_app.enums.UserRole.HELPER_JUNIOR, com.sincon.ticketing_app.enums.UserRole.HELPER_SENIOR, " +
+            "com.sincon.ticketing_app.enums.UserRole.PM, com.sincon.ticketing_app.enums.UserRole.ADMIN)")
+    List<HelperSkillRule> findAllRules();
+
+    Optional<HelperSkill> findByUser_IdAndCategory_IdAndService_Id(String userId, Long categoryId, Long serviceId);
+}
@@ -0,0 +1,27 @@
+package com.sincon.ticketing_app.routing;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HelperSkillRequestDTO {
+
+    @NotBlank(message = "L'utente è obbligatorio.")
+    private String userId;
+
+    // Indicare la categoria oppure il servizio (il servizio ha la precedenza sulla categoria nel routing)
+    private Long categoryId;
+    private Long supportServiceId;
+
+    @NotNull(message = "Il peso è obbligatorio.")
+    @Min(value = 1, message = "Il peso deve essere compreso tra 1 e 100.")
+    @Max(value = 100, message = "Il peso deve essere compreso tra 1 e 100.")
+    private Integer weight;
+}
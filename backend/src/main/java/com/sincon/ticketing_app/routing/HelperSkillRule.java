@@ -0,0 +1,15 @@
+package com.sincon.ticketing_app.routing;
+
+/**
+ * Competenza ridotta ai soli ID, per compilare la tabella di routing con una sola query.
+ */
+public interface HelperSkillRule {
+
+    String getUserId();
+
+    Long getCategoryId();
+
+    Long getServiceId();
+
+    Integer getWeight();
+}
@@ -0,0 +1,8 @@
+package com.sincon.ticketing_app.routing;
+
+/**
+ * Evento pubblicato da {@link TicketRoutingService} quando le competenze cambiano: dopo il commit la tabella di routing
+ * viene ricompilata.
+ */
+public class HelperSkillsChangedEvent {
+}
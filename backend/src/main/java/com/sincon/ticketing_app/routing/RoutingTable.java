@@ -0,0 +1,55 @@
+package com.sincon.ticketing_app.routing;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabella di routing compilata dalle competenze: servizio -> assegnatari con peso e categoria -> assegnatari con peso.
+ * Immutabile dopo la costruzione, viene sostituita per intero a ogni ricompilazione.
+ */
+class RoutingTable {
+
+    static final RoutingTable EMPTY = new RoutingTable(List.of());
+
+    private final Map<Long, Map<String, Integer>> byService = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> byCategory = new HashMap<>();
+    private final int rules;
+
+    RoutingTable(List<HelperSkillRule> skills) {
+        for (HelperSkillRule skill : skills) {
+            if (skill.getServiceId() != null) {
+                byService.computeIfAbsent(skill.getServiceId(), id -> new LinkedHashMap<>()).put(skill.getUserId(), skill.getWeight());
+            } else if (skill.getCategoryId() != null) {
+                byCategory.computeIfAbsent(skill.getCategoryId(), id -> new LinkedHashMap<>()).put(skill.getUserId(), skill.getWeight());
+            }
+        }
+        byService.replaceAll((id, candidates) -> Map.copyOf(candidates));
+        byCategory.replaceAll((id, candidates) -> Map.copyOf(candidates));
+        this.rules = skills.size();
+    }
+
+    /**
+     * @return Gli assegnatari competenti per il servizio, altrimenti per la categoria, altrimenti nessuno.
+     */
+    Map<String, Integer> candidates(Long categoryId, Long serviceId) {
+        Map<String, Integer> candidates = serviceId != null ? byService.get(serviceId) : null;
+        if (candidates == null && categoryId != null) {
+            candidates = byCategory.get(categoryId);
+        }
+        return candidates != null ? candidates : Map.of();
+    }
+
+    int getRules() {
+        return rules;
+    }
+
+    int getServices() {
+        return byService.size();
+    }
+
+    int getCategories() {
+        return byCategory.size();
+    }
+}
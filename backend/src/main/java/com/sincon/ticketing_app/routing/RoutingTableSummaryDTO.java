@@ -0,0 +1,17 @@
+package com.sincon.ticketing_app.routing;
+
+import lombok.*;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutingTableSummaryDTO {
+    private int rules; // Competenze compilate
+    private int categories; // Categorie con almeno un assegnatario competente
+    private int supportServices; // Servizi con almeno un assegnatario competente
+    private Date compiledAt;
+}
@@ -0,0 +1,176 @@
+package com.sincon.ticketing_app.routing;
+
+import com.sincon.ticketing_app.assignment.TicketAssignmentEngine;
+import com.sincon.ticketing_app.category.Category;
+import com.sincon.ticketing_app.category.CategoryService;
+import com.sincon.ticketing_app.exception.ResourceNotFoundException;
+import com.sincon.ticketing_app.exception.ValidationException;
+import com.sincon.ticketing_app.supportservice.SupportService;
+import com.sincon.ticketing_app.supportservice.SupportServiceService;
+import com.sincon.ticketing_app.user.User;
+import com.sincon.ticketing_app.user.UserChangedEvent;
+import com.sincon.ticketing_app.user.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routing dei ticket per competenza: gli assegnatari dichiarano su quali categorie o servizi lavorano ({@link HelperSkill}),
+ * e l'assegnazione automatica sceglie il meno carico tra i competenti per il servizio o la categoria del ticket
+ * (in proporzione al peso), oppure tra tutti se nessuno è competente.
+ * Le competenze sono compilate in una {@link RoutingTable} in memoria, per cui la scelta dei competenti non esegue query;
+ * la tabella viene ricompilata all'avvio, dopo il commit di ogni modifica alle competenze o ai ruoli, su richiesta e
+ * periodicamente ("application.tickets.routing.reload-interval-ms"), per recepire le modifiche fatte su altre istanze.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketRoutingService {
+
+    private final HelperSkillRepository helperSkillRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final SupportServiceService supportServiceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile RoutingTable table = RoutingTable.EMPTY;
+    private volatile Date compiledAt;
+
+    /**
+     * @return Gli assegnatari competenti per il servizio (o, se non ce ne sono, per la categoria) con il loro peso;
+     *         vuota se il ticket può andare a chiunque.
+     */
+    public Map<String, Integer> getCandidates(Long categoryId, Long serviceId) {
+        return table.candidates(categoryId, serviceId);
+    }
+
+    public List<HelperSkillDTO> getSkills() {
+        return helperSkillRepository.findAllDetailed().stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * Crea la competenza di un assegnatario su una categoria o un servizio, o ne aggiorna il peso se esiste già.
+     *
+     * @param request Utente, categoria o servizio e peso.
+     * @return La competenza salvata.
+     */
+    @Transactional
+    public HelperSkillDTO saveSkill(HelperSkillRequestDTO request) {
+        if (request.getCategoryId() == null && request.getSupportServiceId() == null) {
+            throw new ValidationException("Indicare una categoria o un servizio di supporto.");
+        }
+        User user = userService.findUserById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Utente non trovato con ID: " + request.getUserId()));
+        if (!TicketAssignmentEngine.ASSIGNEE_ROLES.contains(user.getRole())) {
+            throw new ValidationException("L'utente " + user.getEmail() + " non può ricevere ticket (ruolo " + user.getRole() + ").");
+        }
+        SupportService service = null;
+        Category category = null;
+        if (request.getSupportServiceId() != null) {
+            service = supportServiceService.findById(request.getSupportServiceId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Servizio non trovato con ID: " + request.getSupportServiceId()));
+            if (request.getCategoryId() != null && !request.getCategoryId().equals(service.getCategory().getId())) {
+                throw new ValidationException("Il servizio indicato non appartiene alla categoria indicata.");
+            }
+        } else {
+            category = categoryService.findById(request.getCategoryId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Categoria non trovata con ID: " + request.getCategoryId()));
+        }
+
+        HelperSkill skill = helperSkillRepository.findByUser_IdAndCategory_IdAndService_Id(user.getId(),
+                        category != null ? category.getId() : null, service != null ? service.getId() : null)
+                .orElseGet(HelperSkill::new);
+        skill.setUser(user);
+        skill.setCategory(category);
+        skill.setService(service);
+        skill.setWeight(request.getWeight());
+        HelperSkill saved = helperSkillRepository.save(skill);
+        eventPublisher.publishEvent(new HelperSkillsChangedEvent());
+        log.info("saveSkill: Skill {} saved for user {} (category: {}, service: {}, weight: {})", saved.getId(), user.getId(),
+                request.getCategoryId(), request.getSupportServiceId(), request.getWeight());
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void deleteSkill(Long skillId) {
+        HelperSkill skill = helperSkillRepository.findById(skillId)
+                .orElseThrow(() -> new ResourceNotFoundException("Competenza non trovata con ID: " + skillId));
+        helperSkillRepository.delete(skill);
+        eventPublisher.publishEvent(new HelperSkillsChangedEvent());
+        log.info("deleteSkill: Skill {} deleted", skillId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileOnStartup() {
+        reload();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSkillsChanged(HelperSkillsChangedEvent event) {
+        reload();
+    }
+
+    // Un cambio di ruolo o una cancellazione può togliere un utente dai competenti
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        reload();
+    }
+
+    // Gli eventi arrivano solo dall'istanza che ha fatto la modifica: le altre la recepiscono qui
+    @Scheduled(fixedDelayString = "${application.tickets.routing.reload-interval-ms:60000}",
+               initialDelayString = "${application.tickets.routing.reload-interval-ms:60000}")
+    public void reloadScheduled() {
+        long start = System.currentTimeMillis();
+        RoutingTable compiled = compile();
+        log.debug("TicketRoutingService: Recompiled {} skills in {} ms", compiled.getRules(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Ricompila la tabella di routing dalle competenze salvate (una sola query) e la sostituisce.
+     *
+     * @return Il riepilogo della nuova tabella.
+     */
+    public RoutingTableSummaryDTO reload() {
+        long start = System.currentTimeMillis();
+        RoutingTable compiled = compile();
+        log.info("TicketRoutingService: Compiled {} skills ({} categories, {} services) in {} ms",
+                compiled.getRules(), compiled.getCategories(), compiled.getServices(), System.currentTimeMillis() - start);
+        return getSummary();
+    }
+
+    private synchronized RoutingTable compile() {
+        RoutingTable compiled = new RoutingTable(helperSkillRepository.findAllRules());
+        table = compiled;
+        compiledAt = new Date();
+        return compiled;
+    }
+
+    public RoutingTableSummaryDTO getSummary() {
+        RoutingTable current = table;
+        return new RoutingTableSummaryDTO(current.getRules(), current.getCategories(), current.getServices(), compiledAt);
+    }
+
+    private HelperSkillDTO toDTO(HelperSkill skill) {
+        return HelperSkillDTO.builder()
+                .id(skill.getId())
+                .userId(skill.getUser().getId())
+                .userEmail(skill.getUser().getEmail())
+                .categoryId(skill.getCategory() != null ? skill.getCategory().getId() : null)
+                .categoryName(skill.getCategory() != null ? skill.getCategory().getName() : null)
+                .supportServiceId(skill.getService() != null ? skill.getService().getId() : null)
+                .supportServiceName(skill.getService() != null ? skill.getService().getTitle() : null)
+                .weight(skill.getWeight())
+                .build();
+    }
+}
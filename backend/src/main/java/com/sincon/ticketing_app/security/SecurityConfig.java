@@ -37,6 +37,9 @@ public class SecurityConfig {
                         "/webjars/**",
                         "/swagger-ui.html")
                         .permitAll()
+                        // Endpoint actuator della cache dei conteggi e delle metriche SLA: solo ADMIN
+                        .requestMatchers("/actuator/ticketcounts/**", "/actuator/slametrics/**")
+                        .hasAuthority("ADMIN")
                         .anyRequest()
                         .authenticated())
                 .oauth2ResourceServer(auth -> auth
@@ -0,0 +1,91 @@
+package com.sincon.ticketing_app.sla;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Istogramma di durate con bucket a crescita esponenziale (8 bucket per ogni raddoppio, errore relativo sotto il 9%),
+ * da pochi secondi a diversi anni in meno di 250 contatori.
+ * Thread-safe senza lock e fondibile: due istogrammi si uniscono sommando i bucket, per cui i percentili di un gruppo
+ * (es. tutte le categorie) si ottengono dall'unione degli istogrammi dei sottogruppi.
+ */
+public class SlaHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAX_DOUBLINGS = 31; // 2^31 secondi, oltre 60 anni
+    private static final int BUCKETS = 1 + MAX_DOUBLINGS * SUB_BUCKETS;
+    private static final double LOG_BASE = Math.log(2) / SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+    private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+    public void record(long durationMillis) {
+        long millis = Math.max(0, durationMillis);
+        buckets.incrementAndGet(bucketOf(millis));
+        count.increment();
+        totalMillis.add(millis);
+        maxMillis.accumulate(millis);
+    }
+
+    public void merge(SlaHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = other.buckets.get(i);
+            if (value != 0) {
+                buckets.addAndGet(i, value);
+            }
+        }
+        count.add(other.count.sum());
+        totalMillis.add(other.totalMillis.sum());
+        maxMillis.accumulate(other.maxMillis.get());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanMillis() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalMillis.sum() / samples;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    /**
+     * @param percentile Percentile tra 0 e 100.
+     * @return Il limite superiore del bucket che contiene il percentile (mai oltre il massimo osservato), 0 se vuoto.
+     */
+    public long getPercentileMillis(double percentile) {
+        long samples = count.sum();
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(samples * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundMillis(i), getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    // Bucket 0: meno di un secondo; bucket i > 0: [2^((i-1)/8), 2^(i/8)) secondi
+    private static int bucketOf(long millis) {
+        double seconds = millis / 1000.0;
+        if (seconds < 1) {
+            return 0;
+        }
+        int index = 1 + (int) Math.floor(Math.log(seconds) / LOG_BASE);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    private static long upperBoundMillis(int bucket) {
+        return (long) Math.ceil(Math.exp(bucket * LOG_BASE) * 1000);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sincon.ticketing_app.sla;
+
+import com.sincon.ticketing_app.enums.SlaGroupBy;
+import com.sincon.ticketing_app.enums.SlaMetric;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/sla-metrics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "SLA Metrics", description = "Percentili dei tempi di assegnazione, accettazione e risoluzione dei ticket")
+public class SlaMetricsController {
+
+    private final SlaMetricsService slaMetricsService;
+
+    /**
+     * Recupera i percentili di una metrica SLA, complessivi o suddivisi per una dimensione.
+     *
+     * @return Una riga per gruppo, in ordine decrescente di numero di ticket.
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('PM', 'ADMIN')")
+    @Operation(summary = "Recupera le metriche SLA",
+               description = "p50, p90, p99, media e massimo (in millisecondi) del tempo di assegnazione, accettazione " +
+                             "o risoluzione, complessivi o per categoria, priorità o assegnatario. Calcolati in memoria.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Metriche recuperate con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo PM e ADMIN).")
+    })
+    public ResponseEntity<List<SlaStatsDTO>> getStats(
+            @RequestParam(defaultValue = "TIME_TO_SOLVE") @Parameter(description = "Durata da misurare") SlaMetric metric,
+            @RequestParam(defaultValue = "ALL") @Parameter(description = "Suddivisione delle metriche") SlaGroupBy groupBy) {
+        log.info("Received request to get SLA metrics {}, groupBy: {}", metric, groupBy);
+        return ResponseEntity.ok(slaMetricsService.getStats(metric, groupBy));
+    }
+}
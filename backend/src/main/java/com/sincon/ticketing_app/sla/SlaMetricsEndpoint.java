@@ -0,0 +1,41 @@
+package com.sincon.ticketing_app.sla;
+
+import com.sincon.ticketing_app.enums.SlaGroupBy;
+import com.sincon.ticketing_app.enums.SlaMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint actuator "slametrics" per le metriche SLA in memoria ({@link SlaMetricsService}):
+ * GET /actuator/slametrics, GET /actuator/slametrics/{metric}/{groupBy}, POST /actuator/slametrics per ricaricarle dal DB.
+ */
+@Component
+@Endpoint(id = "slametrics")
+@RequiredArgsConstructor
+public class SlaMetricsEndpoint {
+
+    private final SlaMetricsService slaMetricsService;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return slaMetricsService.describe();
+    }
+
+    @ReadOperation
+    public List<SlaStatsDTO> stats(@Selector SlaMetric metric, @Selector SlaGroupBy groupBy) {
+        return slaMetricsService.getStats(metric, groupBy);
+    }
+
+    @WriteOperation
+    public Map<String, Object> reseed() {
+        slaMetricsService.seed();
+        return slaMetricsService.describe();
+    }
+}
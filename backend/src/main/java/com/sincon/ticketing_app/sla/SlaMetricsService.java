@@ -0,0 +1,250 @@
+package com.sincon.ticketing_app.sla;
+
+import com.sincon.ticketing_app.enums.SlaGroupBy;
+import com.sincon.ticketing_app.enums.SlaMetric;
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSlaSample;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Metriche SLA in memoria: percentili (p50/p90/p99) dei tempi di assegnazione, accettazione e risoluzione dei ticket,
+ * complessivi o suddivisi per categoria, priorità e assegnatario.
+ * Ogni metrica tiene un {@link SlaHistogram} per combinazione (categoria, priorità, assegnatario); le suddivisioni si
+ * ottengono fondendo gli istogrammi, per cui le letture non interrogano mai il DB.
+ * Gli istogrammi sono popolati una volta all'avvio leggendo in streaming i ticket già assegnati o risolti, poi aggiornati
+ * dopo il commit di ogni transizione. Il tempo di accettazione non viene salvato sul ticket, per cui parte da zero a
+ * ogni avvio. Ogni istanza conta solo le transizioni che esegue dopo il proprio avvio.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlaMetricsService {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final TicketRepository ticketRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${application.tickets.sla-metrics.enabled:true}")
+    private boolean enabled;
+
+    private final Object seedLock = new Object();
+    private volatile MetricsState state = new MetricsState();
+    private volatile boolean ready;
+    private volatile Date seededAt;
+
+    // Transizioni arrivate durante il caricamento iniziale: vengono riapplicate al nuovo stato prima dello scambio
+    private List<Sample> pendingSamples;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Statistiche di una metrica, complessive oppure suddivise per una dimensione.
+     * @param metric La durata da misurare.
+     * @param groupBy La dimensione della suddivisione (ALL per un solo gruppo complessivo).
+     * @return Una riga per gruppo, in ordine decrescente di numero di campioni.
+     */
+    public List<SlaStatsDTO> getStats(SlaMetric metric, SlaGroupBy groupBy) {
+        Map<String, SlaHistogram> merged = new LinkedHashMap<>();
+        state.histograms.get(metric).forEach((cell, histogram) ->
+                merged.computeIfAbsent(cell.groupKey(groupBy), key -> new SlaHistogram()).merge(histogram));
+        if (groupBy == SlaGroupBy.ALL && merged.isEmpty()) {
+            merged.put(null, new SlaHistogram());
+        }
+        return merged.entrySet().stream()
+                .map(entry -> toDTO(metric, entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(SlaStatsDTO::getCount).reversed())
+                .toList();
+    }
+
+    /**
+     * Riepilogo complessivo di tutte le metriche, per l'endpoint actuator.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("enabled", enabled);
+        description.put("ready", ready);
+        description.put("seededAt", seededAt);
+        for (SlaMetric metric : SlaMetric.values()) {
+            description.put(metric.name(), getStats(metric, SlaGroupBy.ALL).get(0));
+        }
+        return description;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (enabled) {
+            seed();
+        }
+    }
+
+    /**
+     * Ricostruisce gli istogrammi dai ticket già assegnati o risolti. Durante il caricamento le statistiche correnti
+     * restano leggibili e continuano a ricevere gli aggiornamenti.
+     */
+    public void seed() {
+        synchronized (seedLock) {
+            seedHistograms();
+        }
+    }
+
+    private void seedHistograms() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingSamples = new ArrayList<>();
+        }
+        MetricsState fresh = new MetricsState();
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        long[] tickets = {0};
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<TicketSlaSample> samples = ticketRepository.streamSlaSamples()) {
+                    samples.forEach(sample -> {
+                        tickets[0]++;
+                        SlaCell cell = new SlaCell(sample.getCategoryId(), sample.getPriority(), sample.getAssignedToId());
+                        if (sample.getAssignedDate() != null) {
+                            fresh.record(SlaMetric.TIME_TO_ASSIGN, cell, sample.getCreatedDate(), sample.getAssignedDate());
+                        }
+                        if (sample.getStatus() == TicketStatus.SOLVED) {
+                            fresh.record(SlaMetric.TIME_TO_SOLVE, cell, sample.getCreatedDate(), sample.getSolveDate());
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingSamples = null;
+            }
+            log.error("SlaMetricsService: Seeding failed, keeping the current metrics", e);
+            return;
+        }
+        synchronized (this) {
+            pendingSamples.forEach(sample -> fresh.record(sample.metric(), sample.cell(), sample.millis()));
+            pendingSamples = null;
+            state = fresh;
+            ready = true;
+            seededAt = new Date();
+        }
+        log.info("SlaMetricsService: Seeded SLA metrics from {} tickets in {} ms", tickets[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Registra le durate delle transizioni dopo il commit della modifica:
+     * assegnazione (primo assignedDate), accettazione (OPEN -> ANSWERED) e risoluzione (passaggio a SOLVED).
+     * Le dimensioni sono quelle del ticket dopo la modifica.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketSnapshot before = event.getBefore();
+        TicketSnapshot after = event.getAfter();
+        if (!enabled || after == null) {
+            return;
+        }
+        SlaCell cell = new SlaCell(after.getCategoryId(), after.getPriority(), after.getAssignedToId());
+        TicketStatus previousStatus = before != null ? before.getStatus() : null;
+        if ((before == null || before.getAssignedDate() == null) && after.getAssignedDate() != null) {
+            record(SlaMetric.TIME_TO_ASSIGN, cell, after.getCreatedDate(), after.getAssignedDate());
+        }
+        if (previousStatus == TicketStatus.OPEN && after.getStatus() == TicketStatus.ANSWERED) {
+            Date acceptedFrom = after.getAssignedDate() != null ? after.getAssignedDate() : after.getCreatedDate();
+            record(SlaMetric.TIME_TO_ACCEPT, cell, acceptedFrom, new Date());
+        }
+        if (previousStatus != TicketStatus.SOLVED && after.getStatus() == TicketStatus.SOLVED) {
+            record(SlaMetric.TIME_TO_SOLVE, cell, after.getCreatedDate(), after.getSolveDate());
+        }
+    }
+
+    private void record(SlaMetric metric, SlaCell cell, Date from, Date to) {
+        if (from == null || to == null) {
+            return;
+        }
+        long millis = to.getTime() - from.getTime();
+        synchronized (this) {
+            state.record(metric, cell, millis);
+            if (pendingSamples != null) {
+                pendingSamples.add(new Sample(metric, cell, millis));
+            }
+        }
+    }
+
+    private static SlaStatsDTO toDTO(SlaMetric metric, String group, SlaHistogram histogram) {
+        return SlaStatsDTO.builder()
+                .metric(metric)
+                .group(group)
+                .count(histogram.getCount())
+                .p50Millis(histogram.getPercentileMillis(PERCENTILES[0]))
+                .p90Millis(histogram.getPercentileMillis(PERCENTILES[1]))
+                .p99Millis(histogram.getPercentileMillis(PERCENTILES[2]))
+                .meanMillis(histogram.getMeanMillis())
+                .maxMillis(histogram.getMaxMillis())
+                .build();
+    }
+
+    /**
+     * Combinazione più fine delle dimensioni: un istogramma per metrica e cella.
+     */
+    private record SlaCell(Long categoryId, TicketPriority priority, String assignedToId) {
+
+        String groupKey(SlaGroupBy groupBy) {
+            return switch (groupBy) {
+                case ALL -> null;
+                case CATEGORY -> Objects.toString(categoryId, null);
+                case PRIORITY -> priority != null ? priority.name() : null;
+                case ASSIGNEE -> assignedToId;
+            };
+        }
+    }
+
+    private record Sample(SlaMetric metric, SlaCell cell, long millis) {
+    }
+
+    private static class MetricsState {
+
+        private final Map<SlaMetric, ConcurrentHashMap<SlaCell, SlaHistogram>> histograms = new EnumMap<>(SlaMetric.class);
+
+        MetricsState() {
+            for (SlaMetric metric : SlaMetric.values()) {
+                histograms.put(metric, new ConcurrentHashMap<>());
+            }
+        }
+
+        void record(SlaMetric metric, SlaCell cell, Date from, Date to) {
+            if (from != null && to != null) {
+                record(metric, cell, to.getTime() - from.getTime());
+            }
+        }
+
+        void record(SlaMetric metric, SlaCell cell, long millis) {
+            histograms.get(metric).computeIfAbsent(cell, key -> new SlaHistogram()).record(millis);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sincon.ticketing_app.sla;
+
+import com.sincon.ticketing_app.enums.SlaMetric;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlaStatsDTO {
+    private SlaMetric metric;
+    private String group; // ID categoria, priorità o ID assegnatario secondo groupBy; null per ALL
+    private long count;
+    // Durate in millisecondi (percentili approssimati per eccesso, errore relativo sotto il 9%)
+    private long p50Millis;
+    private long p90Millis;
+    private long p99Millis;
+    private long meanMillis;
+    private long maxMillis;
+}
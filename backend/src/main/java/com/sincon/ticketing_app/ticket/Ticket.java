@@ -21,7 +21,21 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+    // Supporta l'ordinamento di default e la paginazione keyset (createdDate DESC, id DESC)
+    @Index(name = "idx_tickets_created_date_id", columnList = "created_date DESC, id DESC"),
+    // Un indice per ramo dei filtri di visibilità scritti come UNION ALL (vedi TicketSpecifications.byIdInUnionOf):
+    // owner (con stato, per le bozze e i conteggi), email del ticket, assegnatario (con stato, per i conteggi)
+    @Index(name = "idx_tickets_owner_status", columnList = "user_id, status"),
+    @Index(name = "idx_tickets_email_status", columnList = "email, status"),
+    @Index(name = "idx_tickets_assigned_to_status", columnList = "assigned_to, status"),
+    // Ordinamenti selezionabili dal client (vedi TicketSort), sempre con l'id come spareggio
+    // (gli indici con NULLS LAST o su espressioni sono in DatabaseSchemaInitializer). Letto all'indietro, questo serve
+    // assignedDate ASC con i ticket non assegnati in fondo
+    @Index(name = "idx_tickets_assigned_date_id", columnList = "assigned_date DESC, id DESC"),
+    @Index(name = "idx_tickets_priority_rank_id", columnList = "priority_rank DESC, id DESC"),
+    @Index(name = "idx_tickets_status_rank_id", columnList = "status_rank DESC, id DESC")
+})
 public class Ticket extends Auditable {
 
     @Id
@@ -40,6 +54,14 @@ public class Ticket extends Auditable {
     @Enumerated(EnumType.STRING)
     private TicketStatus status;
 
+    // Gravità della priorità (TicketPriority.ordinal()), per ordinare per priorità invece che per nome dell'enum
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+
+    // Posizione dello stato nel ciclo di vita (TicketStatus.getRank()), per ordinare per stato invece che per nome dell'enum
+    @Column(name = "status_rank")
+    private Integer statusRank;
+
     @Temporal(TemporalType.TIMESTAMP)
     private Date solveDate;
 
@@ -74,4 +96,14 @@ public class Ticket extends Auditable {
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<TicketHistory> history = new ArrayList<>();
+
+    // Le colonne di ricerca search_vector e search_text sono mantenute dal DB tramite trigger e non sono mappate qui,
+    // per non leggerle a ogni caricamento: le query le usano tramite le funzioni di PostgresSearchFunctionContributor
+
+    @PrePersist
+    @PreUpdate
+    private void syncSortRanks() {
+        priorityRank = priority != null ? priority.ordinal() : null;
+        statusRank = status != null ? status.getRank() : null;
+    }
 }
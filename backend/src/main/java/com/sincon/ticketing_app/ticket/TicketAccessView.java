@@ -0,0 +1,35 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+
+import java.util.Date;
+
+/**
+ * Proiezione minima di un ticket: i campi necessari al controllo di visibilità e alla sua versione (ETag),
+ * letti senza caricare l'entità né le sue relazioni. La versione comprende l'ultima modifica di categoria, servizio,
+ * owner e assegnatario, i cui nomi fanno parte di TicketResponseDTO.
+ */
+public interface TicketAccessView {
+
+    Long getId();
+
+    String getOwnerId();
+
+    String getAssignedToId();
+
+    String getEmail();
+
+    TicketStatus getStatus();
+
+    Date getCreatedDate();
+
+    Date getLastModifiedDate();
+
+    Date getCategoryModifiedDate();
+
+    Date getServiceModifiedDate();
+
+    Date getOwnerModifiedDate();
+
+    Date getAssignedToModifiedDate();
+}
@@ -0,0 +1,20 @@
+package com.sincon.ticketing_app.ticket;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketBatchGetRequestDTO {
+
+    @NotEmpty(message = "Indicare almeno un ID di ticket.")
+    @Size(max = 100, message = "È possibile richiedere al massimo 100 ticket per volta.")
+    private List<@NotNull Long> ids;
+}
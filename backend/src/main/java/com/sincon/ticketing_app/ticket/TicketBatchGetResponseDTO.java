@@ -0,0 +1,16 @@
+package com.sincon.ticketing_app.ticket;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketBatchGetResponseDTO {
+    private List<TicketResponseDTO> found; // Ticket visibili all'utente, nell'ordine richiesto
+    private List<Long> forbidden;          // Ticket esistenti ma non visibili all'utente
+    private List<Long> missing;            // Ticket inesistenti
+}
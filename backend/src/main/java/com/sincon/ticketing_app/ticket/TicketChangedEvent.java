@@ -0,0 +1,35 @@
+package com.sincon.ticketing_app.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento pubblicato da {@link TicketService} dopo ogni modifica di un ticket.
+ * Per una creazione {@code before} è null, per una cancellazione {@code after} è null.
+ * I listener che mantengono strutture in memoria devono usare
+ * {@code @TransactionalEventListener} per reagire solo alle modifiche effettivamente committate;
+ * quelli che scrivono sul DB nella stessa transazione (TicketCounterService, TicketRollupService) usano
+ * {@code @EventListener}, così ticket e aggregati sono salvati (o annullati) insieme.
+ * Questi ultimi aggiornano le righe con upsert atomici e sempre nello stesso ordine, per evitare deadlock tra
+ * transazioni concorrenti; i loro ricalcoli completi bloccano in scrittura la tabella fino al commit, per cui le
+ * modifiche concorrenti attendono e si applicano ai valori ricalcolati senza perdere incrementi.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketChangedEvent {
+
+    private final TicketSnapshot before;
+    private final TicketSnapshot after;
+
+    public Long getTicketId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public boolean isCreation() {
+        return before == null;
+    }
+
+    public boolean isDeletion() {
+        return after == null;
+    }
+}
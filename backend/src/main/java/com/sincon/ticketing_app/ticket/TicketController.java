@@ -1,6 +1,10 @@
 package com.sincon.ticketing_app.ticket;
 
+import com.sincon.ticketing_app.common.CursorPageResponse;
+import com.sincon.ticketing_app.common.PageResponse;
+import com.sincon.ticketing_app.enums.TicketExportFormat;
 import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketSearchMode;
 import com.sincon.ticketing_app.enums.TicketStatus;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,16 +16,25 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/tickets")
@@ -239,28 +252,184 @@ public class TicketController {
      * @param status Filtro per stato del ticket (opzionale).
      * @param priority Filtro per priorità del ticket (opzionale).
      * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
-     * @return Una pagina di ticket.
+     * @param searchMode Modalità di ricerca (FULLTEXT o FUZZY).
+     * @param fields Campi da includere nella risposta (opzionale, default tutti).
+     * @param webRequest Richiesta corrente, per la verifica di If-None-Match.
+     * @return Una pagina di ticket, oppure 304 se non è cambiata rispetto all'ETag del client.
      */
     @GetMapping
     @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
     @Operation(summary = "Recupera tutti i ticket (paginati e filtrati per ruolo)",
-               description = "Recupera una lista paginata di ticket in base al ruolo dell'utente autenticato, con opzioni di filtro.")
+               description = "Recupera una lista paginata di ticket in base al ruolo dell'utente autenticato, con opzioni di filtro. " +
+                             "Ordinamento (sort) su una sola chiave tra createdDate (default, desc), lastModifiedDate (ultima attività), " +
+                             "assignedDate (non assegnati in fondo), priority e status (DRAFT, OPEN, ANSWERED, SOLVED).")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista di ticket recuperata con successo."),
+        @ApiResponse(responseCode = "304", description = "Non modificato rispetto all'ETag indicato in If-None-Match."),
+        @ApiResponse(responseCode = "400", description = "Campi richiesti o ordinamento non validi."),
         @ApiResponse(responseCode = "401", description = "Non autenticato."),
         @ApiResponse(responseCode = "403", description = "Non autorizzato (ruolo non supportato).")
     })
-    public ResponseEntity<Page<TicketResponseDTO>> getTickets(
+    public ResponseEntity<MappingJacksonValue> getTickets(
             @ParameterObject Pageable pageable,
             Authentication auth,
             @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
             @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
+            @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search,
+            @RequestParam(defaultValue = "FULLTEXT") @Parameter(description = "Modalità di ricerca: FULLTEXT (per parole) o FUZZY (tollerante agli errori di battitura, ordinata per similarità)", example = "FUZZY") TicketSearchMode searchMode,
+            @RequestParam(required = false) @Parameter(description = "Campi da includere nella risposta, separati da virgola (default: tutti)", example = "id,title,status,priority,assignedToName") String fields,
+            WebRequest webRequest
+    ) {
+        log.info("Received request to get all tickets with pageable: {}, status: {}, priority: {}, search: {}, searchMode: {}, fields: {}",
+                 pageable, status, priority, search, searchMode, fields);
+        Set<String> selectedFields = TicketFields.parse(fields);
+        String etag = ticketService.getTicketsETag(pageable, auth, status, priority, search, searchMode, selectedFields);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 già impostato da checkNotModified
+        }
+        Page<TicketResponseDTO> tickets = ticketService.getTickets(pageable, auth, status, priority, search, searchMode, selectedFields);
+        return ResponseEntity.ok().eTag(etag).body(TicketFields.filter(tickets, selectedFields));
+    }
+
+    /**
+     * Recupera i ticket visibili all'utente in modalità "scorrimento infinito", senza conteggio esatto del totale.
+     *
+     * @param pageable Oggetto per la paginazione.
+     * @param auth Dettagli dell'utente autenticato.
+     * @param status Filtro per stato del ticket (opzionale).
+     * @param priority Filtro per priorità del ticket (opzionale).
+     * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+     * @param searchMode Modalità di ricerca (FULLTEXT o FUZZY).
+     * @param estimateTotal Se true, include un totale approssimato.
+     * @return Una pagina di ticket con il flag "estimated".
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera i ticket in modalità scorrimento (senza conteggio esatto)",
+               description = "Recupera una pagina di ticket indicando se esiste una pagina successiva. Il totale è assente (-1) oppure, con estimateTotal=true, approssimato.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagina di ticket recuperata con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (ruolo non supportato).")
+    })
+    public ResponseEntity<PageResponse<TicketResponseDTO>> getTicketsSlice(
+            @ParameterObject Pageable pageable,
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
+            @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search,
+            @RequestParam(defaultValue = "FULLTEXT") @Parameter(description = "Modalità di ricerca: FULLTEXT o FUZZY", example = "FULLTEXT") TicketSearchMode searchMode,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include un totale approssimato (stima del planner o conteggio in cache)") boolean estimateTotal
+    ) {
+        log.info("Received request to scroll tickets with pageable: {}, status: {}, priority: {}, search: {}, estimateTotal: {}",
+                 pageable, status, priority, search, estimateTotal);
+        return ResponseEntity.ok(ticketService.getTicketsSlice(pageable, auth, status, priority, search, searchMode, estimateTotal));
+    }
+
+    /**
+     * Recupera i conteggi per stato, priorità, categoria e servizio dei ticket visibili all'utente che soddisfano i filtri.
+     *
+     * @param auth Dettagli dell'utente autenticato.
+     * @param status Filtro per stato del ticket (opzionale).
+     * @param priority Filtro per priorità del ticket (opzionale).
+     * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+     * @param searchMode Modalità di ricerca (FULLTEXT o FUZZY).
+     * @return I conteggi per ogni dimensione.
+     */
+    @GetMapping("/facets")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera i conteggi dei ticket per stato, priorità, categoria e servizio",
+               description = "Accetta gli stessi filtri della lista ticket e restituisce i conteggi per ogni valore dei filtri, calcolati con una sola query.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conteggi recuperati con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (ruolo non supportato).")
+    })
+    public ResponseEntity<TicketFacetsDTO> getTicketFacets(
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
+            @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search,
+            @RequestParam(defaultValue = "FULLTEXT") @Parameter(description = "Modalità di ricerca: FULLTEXT o FUZZY", example = "FULLTEXT") TicketSearchMode searchMode
+    ) {
+        log.info("Received request to get ticket facets. status: {}, priority: {}, search: {}", status, priority, search);
+        return ResponseEntity.ok(ticketService.getTicketFacets(auth, status, priority, search, searchMode));
+    }
+
+    /**
+     * Esporta in streaming tutti i ticket visibili all'utente che soddisfano i filtri.
+     *
+     * @param format Formato di esportazione (CSV o NDJSON).
+     * @param auth Dettagli dell'utente autenticato.
+     * @param status Filtro per stato del ticket (opzionale).
+     * @param priority Filtro per priorità del ticket (opzionale).
+     * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+     * @param searchMode Modalità di ricerca (FULLTEXT o FUZZY).
+     * @return Il file esportato, scritto progressivamente.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Esporta i ticket (CSV o NDJSON)",
+               description = "Esporta tutti i ticket visibili all'utente che soddisfano i filtri, in streaming e senza paginazione.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Esportazione avviata con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (ruolo non supportato).")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @RequestParam(defaultValue = "CSV") @Parameter(description = "Formato di esportazione: CSV o NDJSON", example = "CSV") TicketExportFormat format,
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
+            @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search,
+            @RequestParam(defaultValue = "FULLTEXT") @Parameter(description = "Modalità di ricerca: FULLTEXT o FUZZY", example = "FULLTEXT") TicketSearchMode searchMode
+    ) {
+        log.info("Received request to export tickets as {}. status: {}, priority: {}, search: {}", format, status, priority, search);
+        boolean csv = format == TicketExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "tickets.csv" : "tickets.ndjson").build().toString())
+                .body(ticketService.exportTickets(auth, status, priority, search, searchMode, format));
+    }
+
+    /**
+     * Recupera i ticket visibili all'utente con paginazione keyset (cursore su createdDate e id).
+     * Le pagine profonde costano quanto la prima e il conteggio totale viene calcolato solo su richiesta.
+     *
+     * @param after Cursore opaco della pagina successiva (opzionale).
+     * @param before Cursore opaco della pagina precedente (opzionale).
+     * @param size Numero di ticket per pagina (max 100).
+     * @param includeTotal Se true, include il numero totale di ticket filtrati.
+     * @param auth Dettagli dell'utente autenticato.
+     * @param status Filtro per stato del ticket (opzionale).
+     * @param priority Filtro per priorità del ticket (opzionale).
+     * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+     * @return Una pagina keyset di ticket.
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera i ticket con paginazione a cursore",
+               description = "Recupera i ticket visibili all'utente ordinati per data di creazione, navigando con i cursori opachi 'after'/'before'.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagina di ticket recuperata con successo."),
+        @ApiResponse(responseCode = "400", description = "Cursore non valido."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (ruolo non supportato).")
+    })
+    public ResponseEntity<CursorPageResponse<TicketResponseDTO>> getTicketsByCursor(
+            @RequestParam(required = false) @Parameter(description = "Cursore della pagina successiva") String after,
+            @RequestParam(required = false) @Parameter(description = "Cursore della pagina precedente") String before,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Numero di ticket per pagina (max 100)", example = "20") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include il conteggio totale dei ticket filtrati") boolean includeTotal,
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
             @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search
     ) {
-        log.info("Received request to get all tickets with pageable: {}, status: {}, priority: {}, search: {}",
-                 pageable, status, priority, search);
-        Page<TicketResponseDTO> tickets = ticketService.getTickets(pageable, auth, status, priority, search);
-        return ResponseEntity.ok(tickets);
+        log.info("Received request to get tickets by cursor. after: {}, before: {}, size: {}, status: {}, priority: {}, search: {}",
+                 after, before, size, status, priority, search);
+        return ResponseEntity.ok(ticketService.getTicketsByCursor(after, before, size, includeTotal, auth, status, priority, search));
     }
 
     /**
@@ -272,28 +441,79 @@ public class TicketController {
      * @param status Filtro per stato del ticket (opzionale).
      * @param priority Filtro per priorità del ticket (opzionale).
      * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
-     * @return Una pagina di ticket.
+     * @param fields Campi da includere nella risposta (opzionale, default tutti).
+     * @param webRequest Richiesta corrente, per la verifica di If-None-Match.
+     * @return Una pagina di ticket, oppure 304 se non è cambiata rispetto all'ETag del client.
      */
     @GetMapping("/my-tickets-and-associated")
     @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
     @Operation(summary = "Recupera i ticket dell'utente e quelli associati via email (paginati)",
-               description = "Recupera una lista paginata di ticket dove l'utente è il creatore o la sua email corrisponde all'email del ticket, con opzioni di filtro.")
+               description = "Recupera una lista paginata di ticket dove l'utente è il creatore o la sua email corrisponde all'email del ticket, con opzioni di filtro. " +
+                             "Ordinamento (sort) su una sola chiave tra createdDate (default, desc), lastModifiedDate (ultima attività), " +
+                             "assignedDate (non assegnati in fondo), priority e status (DRAFT, OPEN, ANSWERED, SOLVED).")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista di ticket recuperata con successo."),
+        @ApiResponse(responseCode = "304", description = "Non modificato rispetto all'ETag indicato in If-None-Match."),
+        @ApiResponse(responseCode = "400", description = "Campi richiesti o ordinamento non validi."),
         @ApiResponse(responseCode = "401", description = "Non autenticato."),
         @ApiResponse(responseCode = "403", description = "Non autorizzato.")
     })
-    public ResponseEntity<Page<TicketResponseDTO>> getMyTicketsAndAssociatedByEmail(
+    public ResponseEntity<MappingJacksonValue> getMyTicketsAndAssociatedByEmail(
             @ParameterObject Pageable pageable,
             Authentication auth,
             @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
             @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
+            @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search,
+            @RequestParam(required = false) @Parameter(description = "Campi da includere nella risposta, separati da virgola (default: tutti)", example = "id,title,status,priority,assignedToName") String fields,
+            WebRequest webRequest
+    ) {
+        log.info("Received request to get my tickets and associated with pageable: {}, status: {}, priority: {}, search: {}, fields: {}",
+                 pageable, status, priority, search, fields);
+        Set<String> selectedFields = TicketFields.parse(fields);
+        String etag = ticketService.getMyTicketsAndAssociatedETag(pageable, auth, status, priority, search, selectedFields);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 già impostato da checkNotModified
+        }
+        Page<TicketResponseDTO> tickets = ticketService.getMyTicketsAndAssociatedByEmail(pageable, auth, status, priority, search, selectedFields);
+        return ResponseEntity.ok().eTag(etag).body(TicketFields.filter(tickets, selectedFields));
+    }
+
+    /**
+     * Variante con paginazione keyset di /my-tickets-and-associated.
+     *
+     * @param after Cursore opaco della pagina successiva (opzionale).
+     * @param before Cursore opaco della pagina precedente (opzionale).
+     * @param size Numero di ticket per pagina (max 100).
+     * @param includeTotal Se true, include il numero totale di ticket filtrati.
+     * @param auth Dettagli dell'utente autenticato.
+     * @param status Filtro per stato del ticket (opzionale).
+     * @param priority Filtro per priorità del ticket (opzionale).
+     * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+     * @return Una pagina keyset di ticket.
+     */
+    @GetMapping("/my-tickets-and-associated/cursor")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera i ticket dell'utente e quelli associati via email (paginazione a cursore)",
+               description = "Come /my-tickets-and-associated, ma navigando con i cursori opachi 'after'/'before' invece del numero di pagina.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagina di ticket recuperata con successo."),
+        @ApiResponse(responseCode = "400", description = "Cursore non valido."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato.")
+    })
+    public ResponseEntity<CursorPageResponse<TicketResponseDTO>> getMyTicketsAndAssociatedByCursor(
+            @RequestParam(required = false) @Parameter(description = "Cursore della pagina successiva") String after,
+            @RequestParam(required = false) @Parameter(description = "Cursore della pagina precedente") String before,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Numero di ticket per pagina (max 100)", example = "20") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include il conteggio totale dei ticket filtrati") boolean includeTotal,
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Filtra per stato del ticket", example = "OPEN") TicketStatus status,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità del ticket", example = "HIGH") TicketPriority priority,
             @RequestParam(required = false) @Parameter(description = "Cerca per titolo, descrizione, nome categoria o nome servizio", example = "problema") String search
     ) {
-        log.info("Received request to get my tickets and associated with pageable: {}, status: {}, priority: {}, search: {}",
-                 pageable, status, priority, search);
-        Page<TicketResponseDTO> tickets = ticketService.getMyTicketsAndAssociatedByEmail(pageable, auth, status, priority, search);
-        return ResponseEntity.ok(tickets);
+        log.info("Received request to get my tickets and associated by cursor. after: {}, before: {}, size: {}, status: {}, priority: {}, search: {}",
+                 after, before, size, status, priority, search);
+        return ResponseEntity.ok(ticketService.getMyTicketsAndAssociatedByCursor(after, before, size, includeTotal, auth, status, priority, search));
     }
 
     /**
@@ -301,7 +521,9 @@ public class TicketController {
      *
      * @param ticketId ID del ticket.
      * @param auth Dettagli dell'utente autenticato.
-     * @return Dettagli del ticket.
+     * @param fields Campi da includere nella risposta (opzionale, default tutti).
+     * @param webRequest Richiesta corrente, per la verifica di If-None-Match.
+     * @return Dettagli del ticket, oppure 304 se non è cambiato rispetto all'ETag del client.
      */
     @GetMapping("/{ticketId}")
     @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
@@ -309,15 +531,52 @@ public class TicketController {
                description = "Recupera i dettagli completi di un ticket tramite il suo ID.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Dettagli del ticket recuperati con successo."),
+        @ApiResponse(responseCode = "304", description = "Non modificato rispetto all'ETag indicato in If-None-Match."),
         @ApiResponse(responseCode = "401", description = "Non autenticato."),
         @ApiResponse(responseCode = "403", description = "Non autorizzato (non sei owner, assegnatario o admin)."),
         @ApiResponse(responseCode = "404", description = "Ticket non trovato.")
     })
-    public ResponseEntity<TicketResponseDTO> getTicketDetails(
+    public ResponseEntity<MappingJacksonValue> getTicketDetails(
             @PathVariable @Parameter(description = "ID del ticket", example = "1") Long ticketId,
-            Authentication auth) {
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Campi da includere nella risposta, separati da virgola (default: tutti)", example = "id,title,status,priority,assignedToName") String fields,
+            WebRequest webRequest) {
+        Set<String> selectedFields = TicketFields.parse(fields);
+        String etag = ticketService.getTicketDetailsETag(ticketId, auth, selectedFields);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 già impostato da checkNotModified
+        }
         TicketResponseDTO ticket = ticketService.getTicketDetails(ticketId, auth);
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok().eTag(etag).body(TicketFields.filter(ticket, selectedFields));
+    }
+
+    /**
+     * Recupera più ticket per ID in una sola richiesta, con gli stessi controlli di visibilità del dettaglio.
+     *
+     * @param request Elenco degli ID (massimo 100).
+     * @param auth Dettagli dell'utente autenticato.
+     * @param fields Campi da includere nei ticket trovati (opzionale, default tutti).
+     * @return I ticket trovati e gli ID non autorizzati o inesistenti.
+     */
+    @PostMapping("/batch-get")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera più ticket per ID",
+               description = "Recupera fino a 100 ticket con una sola query. I ticket non visibili all'utente o inesistenti " +
+                             "non causano errore ma sono elencati in forbidden e missing.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ticket recuperati con successo."),
+        @ApiResponse(responseCode = "400", description = "Elenco di ID o campi richiesti non validi."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato.")
+    })
+    public ResponseEntity<MappingJacksonValue> getTicketsByIds(
+            @Valid @RequestBody TicketBatchGetRequestDTO request,
+            Authentication auth,
+            @RequestParam(required = false) @Parameter(description = "Campi da includere nella risposta, separati da virgola (default: tutti)", example = "id,title,status,priority,assignedToName") String fields) {
+        log.info("Received request to get {} tickets by id.", request.getIds().size());
+        Set<String> selectedFields = TicketFields.parse(fields);
+        TicketBatchGetResponseDTO response = ticketService.getTicketsByIds(request.getIds(), auth);
+        return ResponseEntity.ok(TicketFields.filter(response, selectedFields));
     }
 
     /**
@@ -329,7 +588,9 @@ public class TicketController {
     @GetMapping("/my-drafts")
     @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
     @Operation(summary = "Recupera tutte le bozze dell'utente corrente",
-               description = "Recupera tutti i ticket in stato DRAFT creati dall'utente autenticato.")
+               description = "Recupera tutti i ticket in stato DRAFT creati dall'utente autenticato, senza paginazione. " +
+                             "Deprecato: usare /my-drafts/summary.",
+               deprecated = true)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Bozze recuperate con successo."),
         @ApiResponse(responseCode = "401", description = "Non autenticato."),
@@ -340,6 +601,30 @@ public class TicketController {
         return ResponseEntity.ok(drafts);
     }
 
+    /**
+     * Recupera una pagina di riepiloghi delle bozze dell'utente corrente, dalla modificata più di recente.
+     *
+     * @param page Numero di pagina (da 0).
+     * @param size Numero di bozze per pagina (max 100).
+     * @param auth Dettagli dell'utente autenticato.
+     * @return Una pagina di riepiloghi delle bozze.
+     */
+    @GetMapping("/my-drafts/summary")
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Recupera le bozze dell'utente corrente (paginate, riepilogo)",
+               description = "Recupera una pagina di bozze dell'utente autenticato con i soli campi per l'elenco, " +
+                             "ordinate per ultima modifica decrescente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bozze recuperate con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato.")
+    })
+    public ResponseEntity<Page<TicketDraftSummaryDTO>> getMyDraftSummaries(
+            @RequestParam(defaultValue = "0") @Parameter(description = "Numero di pagina (da 0)", example = "0") int page,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Numero di bozze per pagina (max 100)", example = "20") int size,
+            Authentication auth) {
+        return ResponseEntity.ok(ticketService.getDraftSummaries(PageRequest.of(Math.max(page, 0), Math.max(size, 1)), auth));
+    }
+
     /**
      * Recupera i conteggi dei ticket per la dashboard.
      *
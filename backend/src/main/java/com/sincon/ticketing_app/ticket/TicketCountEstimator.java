@@ -0,0 +1,75 @@
+package com.sincon.ticketing_app.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Totali approssimati per la lista ticket a scorrimento, per non eseguire un COUNT(*) esatto a ogni pagina.
+ * Senza filtri si usa la stima del planner di Postgres (pg_class.reltuples), negli altri casi
+ * un conteggio esatto tenuto in cache per qualche secondo per combinazione di utente e filtri.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketCountEstimator {
+
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
+    private final TicketRepository ticketRepository;
+
+    @Value("${application.tickets.count-cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Stima il numero totale di ticket, senza filtri.
+     */
+    public long estimateAll() {
+        long estimate = ticketRepository.estimateRowCount();
+        if (estimate >= 0) {
+            return estimate;
+        }
+        // Tabella mai analizzata: nessuna statistica disponibile
+        return estimate("ALL", Specification.where(null));
+    }
+
+    /**
+     * Restituisce il conteggio in cache per la chiave indicata, ricalcolandolo se scaduto.
+     * @param key Identifica la combinazione di visibilità e filtri.
+     * @param spec La Specification da contare in caso di cache scaduta.
+     * @return Il numero (eventualmente non aggiornato) di ticket corrispondenti.
+     */
+    public long estimate(String key, Specification<Ticket> spec) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.getExpiresAt() > now) {
+            return cached.getValue();
+        }
+        if (cache.size() >= MAX_CACHED_COUNTS) {
+            cache.values().removeIf(entry -> entry.getExpiresAt() <= now);
+            if (cache.size() >= MAX_CACHED_COUNTS) {
+                log.warn("TicketCountEstimator: Count cache full ({} entries), clearing it", cache.size());
+                cache.clear();
+            }
+        }
+        long value = ticketRepository.count(spec);
+        cache.put(key, new CachedCount(value, now + cacheTtlSeconds * 1000));
+        return value;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedCount {
+        private final long value;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+
+/**
+ * Numero di ticket per (assegnatario, owner, stato), usato per popolare la cache dei conteggi in memoria.
+ */
+public interface TicketCountRow {
+
+    String getAssignedToId();
+
+    String getOwnerId();
+
+    TicketStatus getStatus();
+
+    long getTicketCount();
+}
@@ -0,0 +1,53 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.exception.ValidationException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Posizione keyset all'interno dell'ordinamento (createdDate DESC, id DESC).
+ * Viene esposta al client come token opaco (Base64 URL-safe) e riconvertita alla richiesta successiva.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketCursor {
+
+    private final Date createdDate;
+    private final Long id;
+
+    public static TicketCursor of(Ticket ticket) {
+        return new TicketCursor(ticket.getCreatedDate(), ticket.getId());
+    }
+
+    public static TicketCursor of(TicketResponseDTO ticket) {
+        return new TicketCursor(ticket.getCreatedOn(), ticket.getId());
+    }
+
+    public String encode() {
+        String raw = createdDate.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token ricevuto dal client.
+     * @param token Il token opaco.
+     * @return Il cursore corrispondente.
+     * @throws ValidationException se il token è malformato.
+     */
+    public static TicketCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long millis = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new TicketCursor(new Date(millis), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Cursore di paginazione non valido: " + token);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Riepilogo di una bozza per la lista "/my-drafts/summary": solo i campi mostrati in elenco,
+ * letti con una proiezione (vedi TicketRepository.findDraftSummaries). Il dettaglio completo resta su "/{ticketId}".
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketDraftSummaryDTO {
+    private Long id;
+    private String title;
+    private TicketPriority priority;
+    private String categoryName;
+    private String supportServiceName;
+    private Date createdOn;
+    private Date updatedOn; // Ultima modifica, oppure la creazione se la bozza non è mai stata modificata
+}
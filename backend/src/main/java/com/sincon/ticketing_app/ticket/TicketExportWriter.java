@@ -0,0 +1,97 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sincon.ticketing_app.enums.TicketExportFormat;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scrive i ticket esportati direttamente sullo stream della risposta, una riga alla volta,
+ * così la memoria usata non dipende dal numero di ticket esportati.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketExportWriter {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param rows I ticket da esportare (lo stream viene consumato ma non chiuso).
+     * @param outputStream Lo stream della risposta HTTP.
+     * @param format Il formato di esportazione.
+     * @return Il numero di ticket scritti.
+     */
+    public long write(Stream<TicketResponseDTO> rows, OutputStream outputStream, TicketExportFormat format) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            ObjectWriter jsonWriter = objectMapper.writer();
+            // SimpleDateFormat non è thread-safe: un'istanza per esportazione
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+
+            if (format == TicketExportFormat.CSV) {
+                writer.write(String.join(",", TicketFields.ALL));
+                writer.write("\r\n");
+            }
+            long count = 0;
+            Iterator<TicketResponseDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TicketResponseDTO ticket = iterator.next();
+                if (format == TicketExportFormat.CSV) {
+                    writer.write(toCsvRow(ticket, dateFormat));
+                    writer.write("\r\n");
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(ticket));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Errore durante la scrittura dell'esportazione dei ticket", e);
+        }
+    }
+
+    private String toCsvRow(TicketResponseDTO ticket, SimpleDateFormat dateFormat) {
+        // Stesso ordine delle colonne di TicketFields.ALL (intestazione)
+        return Stream.of(
+                ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getStatus(), ticket.getPriority(),
+                ticket.getUserId(), ticket.getUserFirstName(), ticket.getUserLastName(),
+                ticket.getUserEmail(), ticket.getUserPhoneNumber(), ticket.getUserFiscalCode(),
+                ticket.getCategoryId(), ticket.getCategoryName(), ticket.getSupportServiceId(), ticket.getSupportServiceName(),
+                ticket.getAssignedToId(), ticket.getAssignedToName(),
+                ticket.getCreatedOn(), ticket.getUpdatedOn(), ticket.getSolvedOn())
+                .map(value -> csvValue(value, dateFormat))
+                .collect(Collectors.joining(","));
+    }
+
+    private String csvValue(Object value, SimpleDateFormat dateFormat) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Date date ? dateFormat.format(date) : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
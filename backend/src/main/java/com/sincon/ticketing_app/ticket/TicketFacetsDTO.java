@@ -0,0 +1,32 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketFacetsDTO {
+    private long totalTickets;
+    private Map<TicketStatus, Long> status;     // Tutti gli stati, anche con conteggio 0
+    private Map<TicketPriority, Long> priority; // Tutte le priorità, anche con conteggio 0
+    private List<FacetValue> categories;        // Solo le categorie presenti, ordinate per conteggio
+    private List<FacetValue> supportServices;   // Solo i servizi presenti, ordinati per conteggio
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetValue {
+        private Long id;
+        private String name;
+        private long count;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.sincon.ticketing_app.exception.ValidationException;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Gestione del parametro "fields" (sparse fieldset) delle risposte con {@link TicketResponseDTO}:
+ * elenco dei campi selezionabili, validazione e filtro della serializzazione JSON.
+ */
+public class TicketFields {
+
+    // Id del @JsonFilter di TicketResponseDTO
+    public static final String FILTER_ID = "ticketFields";
+
+    // Tutti i campi di TicketResponseDTO, nell'ordine del costruttore usato dalla proiezione
+    public static final List<String> ALL = List.of(
+            "id", "title", "description", "status", "priority",
+            "userId", "userFirstName", "userLastName", "userEmail", "userPhoneNumber", "userFiscalCode",
+            "categoryId", "categoryName", "supportServiceId", "supportServiceName",
+            "assignedToId", "assignedToName",
+            "createdOn", "updatedOn", "solvedOn");
+
+    /**
+     * Converte il parametro "fields" (es. "id,title,status") nell'insieme dei campi richiesti.
+     * L'id è sempre incluso.
+     * @param fields Il valore del parametro, anche null.
+     * @return I campi richiesti, oppure null se il parametro è assente (tutti i campi).
+     * @throws ValidationException se un campo non esiste.
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<String> unknown = requested.stream().filter(field -> !ALL.contains(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new ValidationException("Campi non validi: " + unknown + ". Campi disponibili: " + ALL);
+        }
+        requested.add("id");
+        return requested;
+    }
+
+    /**
+     * Limita la serializzazione JSON dei TicketResponseDTO contenuti nella risposta ai campi richiesti.
+     * @param body La risposta (DTO singolo, pagina, lista...).
+     * @param fields I campi richiesti, oppure null per serializzarli tutti.
+     * @return La risposta avvolta con il filtro Jackson corrispondente.
+     */
+    public static MappingJacksonValue filter(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        SimpleBeanPropertyFilter filter = fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, filter)
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        return value;
+    }
+}
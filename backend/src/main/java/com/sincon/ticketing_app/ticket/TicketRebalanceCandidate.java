@@ -0,0 +1,19 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+
+/**
+ * Ticket che il ribilanciamento può spostare, con le sole dimensioni necessarie a scegliere il nuovo assegnatario.
+ */
+public interface TicketRebalanceCandidate {
+
+    Long getId();
+
+    String getAssignedToId();
+
+    TicketStatus getStatus();
+
+    Long getCategoryId();
+
+    Long getServiceId();
+}
@@ -1,15 +1,23 @@
 package com.sincon.ticketing_app.ticket;
 
 import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.UserRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket>,
+        TicketRepositoryCustom {
 
     // Metodi derivati semplici e inequivocabili per liste specifiche
     List<Ticket> findByOwner_IdAndStatus(String ownerId, TicketStatus status);
@@ -21,6 +29,7 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
     long countByOwner_IdAndStatusNot(String ownerId, TicketStatus status); // Conta i ticket di un owner con status diverso
     long countByAssignedTo_IdAndStatus(String assignedToId, TicketStatus status); // Conta i ticket assegnati con un dato status
     long countByAssignedTo_IdAndStatusNot(String assignedToId, TicketStatus status); // Conta i ticket assegnati con status diverso
+    long countByAssignedTo_IdAndStatusIn(String assignedToId, Collection<TicketStatus> statuses); // Conta i ticket assegnati negli stati indicati
 
     // Query custom per dettagli completi con fetch join per evitare N+1
     @Query("SELECT t FROM Ticket t " +
@@ -30,8 +39,98 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
             "LEFT JOIN FETCH t.service " +
             "WHERE t.id = :id")
     Optional<Ticket> findDetailedById(@Param("id") Long id);
+
+    // Come findDetailedById, per più ticket in una sola query
+    @Query("SELECT t FROM Ticket t " +
+            "LEFT JOIN FETCH t.owner " +
+            "LEFT JOIN FETCH t.assignedTo " +
+            "LEFT JOIN FETCH t.category " +
+            "LEFT JOIN FETCH t.service " +
+            "WHERE t.id IN :ids")
+    List<Ticket> findDetailedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Riepiloghi delle bozze di un utente, dalla più recente; l'ORDER BY coincide con l'indice
+    // idx_tickets_owner_status_modified (vedi DatabaseSchemaInitializer), quindi la pagina è letta in ordine di indice.
+    // Il Pageable non deve contenere un Sort.
+    @Query(value = "SELECT new com.sincon.ticketing_app.ticket.TicketDraftSummaryDTO(" +
+            "t.id, t.title, t.priority, c.name, s.title, t.createdDate, coalesce(t.lastModifiedDate, t.createdDate)) " +
+            "FROM Ticket t LEFT JOIN t.category c LEFT JOIN t.service s " +
+            "WHERE t.owner.id = :ownerId AND t.status = :status " +
+            "ORDER BY coalesce(t.lastModifiedDate, t.createdDate) DESC, t.id DESC",
+            countQuery = "SELECT count(t) FROM Ticket t WHERE t.owner.id = :ownerId AND t.status = :status")
+    Page<TicketDraftSummaryDTO> findDraftSummaries(@Param("ownerId") String ownerId, @Param("status") TicketStatus status, Pageable pageable);
+
+    // Campi per il controllo di visibilità e l'ETag del dettaglio, senza caricare l'entità
+    @Query("SELECT t.id AS id, o.id AS ownerId, a.id AS assignedToId, t.email AS email, t.status AS status, " +
+            "t.createdDate AS createdDate, t.lastModifiedDate AS lastModifiedDate, " +
+            "c.lastModifiedDate AS categoryModifiedDate, s.lastModifiedDate AS serviceModifiedDate, " +
+            "o.lastModifiedDate AS ownerModifiedDate, a.lastModifiedDate AS assignedToModifiedDate " +
+            "FROM Ticket t JOIN t.owner o LEFT JOIN t.assignedTo a LEFT JOIN t.category c LEFT JOIN t.service s " +
+            "WHERE t.id = :id")
+    Optional<TicketAccessView> findAccessViewById(@Param("id") Long id);
+
+    // Documenti testuali per la ricostruzione dell'indice di ricerca in memoria, letti a blocchi di ID
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, " +
+            "c.name AS categoryName, s.title AS serviceTitle " +
+            "FROM Ticket t LEFT JOIN t.category c LEFT JOIN t.service s " +
+            "WHERE t.id BETWEEN :fromId AND :toId")
+    List<TicketSearchDocument> findSearchDocumentsByIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Numero di righe stimato dal planner (aggiornato da ANALYZE/autovacuum), -1 se la tabella non è mai stata analizzata
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = 'tickets'::regclass", nativeQuery = true)
+    long estimateRowCount();
+
+    @Query("SELECT MIN(t.id) FROM Ticket t")
+    Optional<Long> findMinId();
+
+    @Query("SELECT MAX(t.id) FROM Ticket t")
+    Optional<Long> findMaxId();
+
+    // Conteggi per (assegnatario, owner, stato) in una sola aggregazione: da qui si ricavano i conteggi globali,
+    // per assegnatario e per owner della cache in memoria
+    @Query("SELECT a.id AS assignedToId, t.owner.id AS ownerId, t.status AS status, COUNT(t) AS ticketCount " +
+            "FROM Ticket t LEFT JOIN t.assignedTo a " +
+            "WHERE t.status IS NOT NULL " +
+            "GROUP BY a.id, t.owner.id, t.status")
+    List<TicketCountRow> countByAssigneeOwnerAndStatus();
+
+    // Ticket in lavorazione senza un assegnatario idoneo (non assegnati o assegnati a un utente che non ha più un ruolo
+    // da assegnatario), dal più vecchio: il ribilanciamento li assegna per primi
+    @Query("SELECT t.id AS id, a.id AS assignedToId, t.status AS status, c.id AS categoryId, s.id AS serviceId " +
+            "FROM Ticket t LEFT JOIN t.assignedTo a LEFT JOIN t.category c LEFT JOIN t.service s " +
+            "WHERE (a IS NULL OR a.role NOT IN :roles) AND t.status IN :statuses " +
+            "ORDER BY t.createdDate ASC, t.id ASC")
+    List<TicketRebalanceCandidate> findOrphanedRebalanceCandidates(@Param("roles") Collection<UserRole> roles,
+                                                                   @Param("statuses") Collection<TicketStatus> statuses,
+                                                                   Pageable pageable);
+
+    // Ticket in lavorazione di un assegnatario, dal più recente (il meno avviato) per il ribilanciamento
+    @Query("SELECT t.id AS id, a.id AS assignedToId, t.status AS status, c.id AS categoryId, s.id AS serviceId " +
+            "FROM Ticket t JOIN t.assignedTo a LEFT JOIN t.category c LEFT JOIN t.service s " +
+            "WHERE a.id = :assigneeId AND t.status IN :statuses " +
+            "ORDER BY t.assignedDate DESC, t.id DESC")
+    List<TicketRebalanceCandidate> findAssignedRebalanceCandidates(@Param("assigneeId") String assigneeId,
+                                                                   @Param("statuses") Collection<TicketStatus> statuses,
+                                                                   Pageable pageable);
+
+    // Lock applicativo di Postgres rilasciato a fine transazione: serializza le assegnazioni automatiche di tutte le istanze
+    // (la SELECT esterna evita di leggere il tipo void restituito da pg_advisory_xact_lock)
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) AS assignment_lock", nativeQuery = true)
+    Integer acquireAdvisoryXactLock(@Param("key") long key);
+
+    // Ticket assegnati o risolti, letti in streaming (da usare in una transazione) per popolare le metriche SLA
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.createdDate AS createdDate, t.assignedDate AS assignedDate, t.solveDate AS solveDate, " +
+            "t.status AS status, c.id AS categoryId, t.priority AS priority, a.id AS assignedToId " +
+            "FROM Ticket t LEFT JOIN t.category c LEFT JOIN t.assignedTo a " +
+            "WHERE t.assignedDate IS NOT NULL OR (t.status = com.sincon.ticketing_app.enums.TicketStatus.SOLVED AND t.solveDate IS NOT NULL)")
+    Stream<TicketSlaSample> streamSlaSamples();
    
-       // Aggiunto per eliminare i ticket quando un utente viene eliminato
-       void deleteByOwner_Id(String ownerId);
-       void deleteByAssignedTo_Id(String assignedToId);
+       // Aggiunto per eliminare i ticket quando un utente viene eliminato (restituisce i ticket eliminati)
+       List<Ticket> deleteByOwner_Id(String ownerId);
+       // Ticket da de-assegnare quando un utente viene eliminato
+       List<Ticket> findByAssignedTo_Id(String assignedToId);
 }
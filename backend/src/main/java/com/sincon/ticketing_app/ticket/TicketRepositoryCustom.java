@@ -0,0 +1,70 @@
+package com.sincon.ticketing_app.ticket;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Percorso di lettura a proiezione per le liste di ticket: seleziona direttamente le colonne di
+ * {@link TicketResponseDTO} con una sola query in join, senza caricare entità né relazioni lazy.
+ */
+public interface TicketRepositoryCustom {
+
+    /**
+     * Pagina di DTO filtrata dalla Specification (una query dati più il conteggio, se necessario).
+     */
+    Page<TicketResponseDTO> findResponsePage(Specification<Ticket> spec, Pageable pageable);
+
+    /**
+     * Come {@link #findResponsePage(Specification, Pageable)}, ma seleziona solo le colonne dei campi indicati
+     * (gli altri campi dei DTO restano null).
+     * @param fields Nomi dei campi di TicketResponseDTO, oppure null per selezionarli tutti.
+     */
+    Page<TicketResponseDTO> findResponsePage(Specification<Ticket> spec, Pageable pageable, Set<String> fields);
+
+    /**
+     * Slice di DTO senza conteggio: legge size + 1 righe per sapere se esiste una pagina successiva.
+     */
+    Slice<TicketResponseDTO> findResponseSlice(Specification<Ticket> spec, Pageable pageable);
+
+    /**
+     * Stream di DTO letto con un cursore JDBC forward-only: le righe vengono lette dal DB a blocchi durante l'iterazione.
+     * Va consumato (e chiuso) dentro una transazione, altrimenti il driver Postgres carica tutto il risultato in memoria.
+     */
+    Stream<TicketResponseDTO> streamResponses(Specification<Ticket> spec, Sort sort);
+
+    /**
+     * Conteggi dei ticket filtrati dalla Specification raggruppati per (stato, priorità, categoria, servizio),
+     * calcolati con una sola query GROUP BY.
+     * @return Una tupla per gruppo con alias status, priority, categoryId, categoryName, serviceId, serviceTitle, count.
+     */
+    List<Tuple> countFacets(Specification<Ticket> spec);
+
+    /**
+     * Conteggi dei ticket filtrati dalla Specification per stato, con una sola query GROUP BY status.
+     * Oltre al totale di ogni stato riporta quanti ticket sono dell'utente indicato e quanti gli sono assegnati.
+     * @param userId ID dell'utente per i conteggi owned/assigned.
+     * @return Una tupla per stato con alias status, count, owned, assigned.
+     */
+    List<Tuple> countStatusBreakdown(Specification<Ticket> spec, String userId);
+
+    /**
+     * Versione dell'insieme di ticket filtrato dalla Specification, per calcolare l'ETag delle liste.
+     * @return Una tupla con alias count (numero di ticket), lastModified (massima data di modifica o creazione) e
+     *         categoryModified, serviceModified, ownerModified, assignedToModified (massima data di modifica delle
+     *         righe in join).
+     */
+    Tuple findListVersion(Specification<Ticket> spec);
+
+    /**
+     * Primi {@code limit} DTO filtrati dalla Specification nell'ordine indicato, senza conteggio.
+     */
+    List<TicketResponseDTO> findResponseList(Specification<Ticket> spec, Sort sort, int limit);
+}
@@ -0,0 +1,294 @@
+package com.sincon.ticketing_app.ticket;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.SortDirection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TicketRepositoryCustomImpl implements TicketRepositoryCustom {
+
+    // Righe lette dal DB per ogni round trip durante lo streaming
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TicketResponseDTO> findResponsePage(Specification<Ticket> spec, Pageable pageable) {
+        TypedQuery<TicketResponseDTO> query = createResponseQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // Il conteggio viene eseguito solo se la pagina non basta a determinare il totale
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Page<TicketResponseDTO> findResponsePage(Specification<Ticket> spec, Pageable pageable, Set<String> fields) {
+        if (fields == null || !pageable.isPaged()) {
+            return findResponsePage(spec, pageable);
+        }
+        List<TicketResponseDTO> content = findPartialResponses(spec, pageable.getSort(), fields,
+                pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<TicketResponseDTO> findResponseSlice(Specification<Ticket> spec, Pageable pageable) {
+        List<TicketResponseDTO> rows = new ArrayList<>(createResponseQuery(spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows.remove(rows.size() - 1);
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<TicketResponseDTO> streamResponses(Specification<Ticket> spec, Sort sort) {
+        return createResponseQuery(spec, sort)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<TicketResponseDTO> findResponseList(Specification<Ticket> spec, Sort sort, int limit) {
+        return createResponseQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<TicketResponseDTO> createResponseQuery(Specification<Ticket> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketResponseDTO> query = builder.createQuery(TicketResponseDTO.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        Map<String, Join<Ticket, ?>> joins = new HashMap<>();
+
+        // Stesso ordine dei campi (e quindi del costruttore) di TicketResponseDTO, stessi valori di TicketMapper.toResponseDTO
+        query.select(builder.construct(TicketResponseDTO.class, TicketFields.ALL.stream()
+                .map(field -> fieldExpression(field, root, joins, builder))
+                .toArray(Selection[]::new)));
+        applySpecificationAndSort(query, root, builder, spec, sort);
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Come {@link #createResponseQuery}, ma seleziona (e mette in join) solo le colonne dei campi richiesti.
+     */
+    private List<TicketResponseDTO> findPartialResponses(Specification<Ticket> spec, Sort sort, Set<String> fields,
+                                                         long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Ticket> root = query.from(Ticket.class);
+        Map<String, Join<Ticket, ?>> joins = new HashMap<>();
+
+        List<String> selected = TicketFields.ALL.stream().filter(fields::contains).toList();
+        query.multiselect(selected.stream()
+                .<Selection<?>>map(field -> fieldExpression(field, root, joins, builder).alias(field))
+                .toList());
+        applySpecificationAndSort(query, root, builder, spec, sort);
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> {
+                    TicketResponseDTO dto = new TicketResponseDTO();
+                    PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(dto);
+                    selected.forEach(field -> accessor.setPropertyValue(field, tuple.get(field)));
+                    return dto;
+                })
+                .toList();
+    }
+
+    /**
+     * Espressione che calcola un campo di TicketResponseDTO; le join necessarie vengono create solo al primo utilizzo.
+     */
+    private Expression<?> fieldExpression(String field, Root<Ticket> root, Map<String, Join<Ticket, ?>> joins,
+                                          CriteriaBuilder builder) {
+        return switch (field) {
+            case "id" -> root.get("id");
+            case "title" -> root.get("title");
+            case "description" -> root.get("description");
+            case "status" -> root.get("status");
+            case "priority" -> root.get("priority");
+            case "userId" -> join(root, joins, "owner").get("id");
+            case "userFirstName" -> join(root, joins, "owner").get("firstName");
+            case "userLastName" -> join(root, joins, "owner").get("lastName");
+            case "userEmail" -> root.get("email");
+            case "userPhoneNumber" -> root.get("phoneNumber");
+            case "userFiscalCode" -> root.get("fiscalCode");
+            case "categoryId" -> join(root, joins, "category").get("id");
+            case "categoryName" -> join(root, joins, "category").get("name");
+            case "supportServiceId" -> join(root, joins, "service").get("id");
+            case "supportServiceName" -> join(root, joins, "service").get("title");
+            case "assignedToId" -> join(root, joins, "assignedTo").get("id");
+            case "assignedToName" -> {
+                Join<Ticket, ?> assignedTo = join(root, joins, "assignedTo");
+                yield builder.concat(builder.concat(assignedTo.<String>get("firstName"), " "), assignedTo.<String>get("lastName"));
+            }
+            case "createdOn" -> root.get("createdDate");
+            case "updatedOn" -> root.get("lastModifiedDate");
+            case "solvedOn" -> root.get("solveDate");
+            default -> throw new IllegalArgumentException("Campo TicketResponseDTO sconosciuto: " + field);
+        };
+    }
+
+    private Join<Ticket, ?> join(Root<Ticket> root, Map<String, Join<Ticket, ?>> joins, String association) {
+        return joins.computeIfAbsent(association, name -> root.join(name, JoinType.LEFT));
+    }
+
+    private void applySpecificationAndSort(CriteriaQuery<?> query, Root<Ticket> root, CriteriaBuilder builder,
+                                           Specification<Ticket> spec, Sort sort) {
+        // La Specification può anche impostare l'ORDER BY (es. rilevanza della ricerca); un Sort esplicito lo sostituisce
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, builder));
+        }
+    }
+
+    /**
+     * Come QueryUtils.toOrders, ma risolve le proprietà calcolate di {@link TicketSort} e applica
+     * Sort.Order.getNullHandling(), che QueryUtils ignora nelle query Criteria.
+     */
+    private List<Order> toOrders(Sort sort, Root<Ticket> root, CriteriaBuilder builder) {
+        HibernateCriteriaBuilder hibernateBuilder = (HibernateCriteriaBuilder) builder;
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            JpaExpression<?> expression = (JpaExpression<?>) TicketSort.expression(order.getProperty(), root, builder);
+            SortDirection direction = order.isAscending() ? SortDirection.ASCENDING : SortDirection.DESCENDING;
+            NullPrecedence nulls = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> NullPrecedence.FIRST;
+                case NULLS_LAST -> NullPrecedence.LAST;
+                case NATIVE -> NullPrecedence.NONE;
+            };
+            orders.add(hibernateBuilder.sort(expression, direction, nulls));
+        }
+        return orders;
+    }
+
+    @Override
+    public List<Tuple> countFacets(Specification<Ticket> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Ticket> root = query.from(Ticket.class);
+        Join<Ticket, ?> category = root.join("category", JoinType.LEFT);
+        Join<Ticket, ?> service = root.join("service", JoinType.LEFT);
+
+        query.multiselect(
+                root.get("status").alias("status"),
+                root.get("priority").alias("priority"),
+                category.get("id").alias("categoryId"),
+                category.get("name").alias("categoryName"),
+                service.get("id").alias("serviceId"),
+                service.get("title").alias("serviceTitle"),
+                builder.count(root).alias("count"));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("status"), root.get("priority"),
+                category.get("id"), category.get("name"), service.get("id"), service.get("title"));
+        // Le Specification di ordinamento (rilevanza) non hanno senso su una query aggregata
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Tuple> countStatusBreakdown(Specification<Ticket> spec, String userId) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Ticket> root = query.from(Ticket.class);
+
+        query.multiselect(
+                root.get("status").alias("status"),
+                builder.count(root).alias("count"),
+                countWhere(builder, builder.equal(root.get("owner").get("id"), userId)).alias("owned"),
+                countWhere(builder, builder.equal(root.get("assignedTo").get("id"), userId)).alias("assigned"));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("status"));
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // sum(CASE WHEN condizione THEN 1 ELSE 0 END): conteggio condizionale nella stessa scansione
+    private Expression<Long> countWhere(CriteriaBuilder builder, Predicate condition) {
+        return builder.sum(builder.<Long>selectCase().when(condition, 1L).otherwise(0L));
+    }
+
+    @Override
+    public Tuple findListVersion(Specification<Ticket> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Ticket> root = query.from(Ticket.class);
+        // lastModifiedDate è null finché il ticket non viene modificato dopo la creazione
+        Expression<Date> modified = builder.coalesce(root.<Date>get("lastModifiedDate"), root.<Date>get("createdDate"));
+        // Anche le righe in join di cui la risposta mostra i nomi: rinominarle non modifica il ticket
+        query.multiselect(builder.count(root).alias("count"), builder.greatest(modified).alias("lastModified"),
+                builder.greatest(root.join("category", JoinType.LEFT).<Date>get("lastModifiedDate")).alias("categoryModified"),
+                builder.greatest(root.join("service", JoinType.LEFT).<Date>get("lastModifiedDate")).alias("serviceModified"),
+                builder.greatest(root.join("owner", JoinType.LEFT).<Date>get("lastModifiedDate")).alias("ownerModified"),
+                builder.greatest(root.join("assignedTo", JoinType.LEFT).<Date>get("lastModifiedDate")).alias("assignedToModified"));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private long count(Specification<Ticket> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(builder.count(root));
+        // Le Specification di ordinamento non hanno effetto sulla query di conteggio
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
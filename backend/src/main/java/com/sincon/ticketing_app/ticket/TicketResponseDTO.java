@@ -2,6 +2,7 @@ package com.sincon.ticketing_app.ticket;
 
 import com.sincon.ticketing_app.enums.TicketPriority;
 import com.sincon.ticketing_app.enums.TicketStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.*;
 
 import java.util.Date;
@@ -11,8 +12,11 @@ import java.util.Date;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(TicketFields.FILTER_ID) // Permette di serializzare solo i campi richiesti con "fields" (vedi TicketFields)
 public class TicketResponseDTO {
 
+    // L'ordine dei campi definisce il costruttore usato dalla proiezione in TicketRepositoryCustomImpl
+
     private Long id;
 
     private String title;
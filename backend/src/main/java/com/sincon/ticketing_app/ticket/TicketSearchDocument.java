@@ -0,0 +1,17 @@
+package com.sincon.ticketing_app.ticket;
+
+/**
+ * Proiezione con i soli campi testuali indicizzati da {@link TicketSearchIndex}.
+ */
+public interface TicketSearchDocument {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getCategoryName();
+
+    String getServiceTitle();
+}
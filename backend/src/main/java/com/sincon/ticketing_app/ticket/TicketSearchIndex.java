@@ -0,0 +1,260 @@
+package com.sincon.ticketing_app.ticket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Indice invertito in memoria su titolo, descrizione, nome categoria e nome servizio dei ticket (opzionale,
+ * "application.search.in-memory-index.enabled").
+ * Risolve una ricerca in un insieme di ID senza interrogare il DB; la query su Postgres resta necessaria solo per
+ * caricare la pagina finale, con i filtri di visibilità del ruolo applicati come sempre.
+ * Ogni termine cercato è trattato come prefisso e tutti i termini devono essere presenti (come nella ricerca full-text).
+ * A differenza di Postgres non applica lo stemming italiano: le parole sono solo normalizzate (minuscole, senza accenti).
+ * L'indice viene ricostruito all'avvio a blocchi paralleli di ID e aggiornato dopo il commit di ogni modifica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketSearchIndex {
+
+    private static final int REBUILD_CHUNK_SIZE = 2000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final TicketRepository ticketRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${application.search.in-memory-index.enabled:false}")
+    private boolean enabled;
+
+    // Oltre questo numero di ID la lista IN diventa più costosa della ricerca full-text: si torna al DB
+    @Value("${application.search.in-memory-index.max-matches:5000}")
+    private int maxMatches;
+
+    @Value("${application.search.in-memory-index.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final Object rebuildLock = new Object();
+    private volatile IndexState state = new IndexState();
+    private volatile boolean ready;
+
+    // Modifiche arrivate durante una ricostruzione: vengono riapplicate al nuovo indice prima dello scambio
+    // (Optional vuoto = ticket eliminato)
+    private Map<Long, Optional<Set<String>>> pendingChanges;
+
+    /**
+     * Cerca i ticket che contengono tutti i termini indicati.
+     * @param text Il testo inserito dall'utente.
+     * @return Gli ID corrispondenti, oppure Optional vuoto se l'indice non è disponibile o i risultati sono troppi
+     *         (in entrambi i casi il chiamante deve usare la ricerca full-text sul DB).
+     */
+    public Optional<Set<Long>> findMatchingIds(String text) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return Optional.of(Set.of());
+        }
+        IndexState current = state;
+        List<Set<Long>> perToken = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            Set<Long> matches = current.prefixMatches(token, maxMatches * 10);
+            if (matches == null) {
+                return Optional.empty(); // Prefisso troppo generico
+            }
+            if (matches.isEmpty()) {
+                return Optional.of(Set.of());
+            }
+            perToken.add(matches);
+        }
+        // Interseca partendo dall'insieme più piccolo
+        perToken.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(perToken.get(0));
+        for (int i = 1; i < perToken.size() && !result.isEmpty(); i++) {
+            result.retainAll(perToken.get(i));
+        }
+        return result.size() > maxMatches ? Optional.empty() : Optional.of(result);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        return state.documents.size();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Ricostruisce l'indice leggendo i ticket a blocchi di ID in parallelo.
+     * Durante la ricostruzione l'indice corrente resta interrogabile e continua a ricevere gli aggiornamenti.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingChanges = new ConcurrentHashMap<>();
+        }
+        IndexState fresh = new IndexState();
+        Optional<Long> minId = ticketRepository.findMinId();
+        Optional<Long> maxId = ticketRepository.findMaxId();
+        if (minId.isPresent() && maxId.isPresent()) {
+            TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+            readOnlyTx.setReadOnly(true);
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+            try {
+                List<Future<?>> chunks = new ArrayList<>();
+                for (long from = minId.get(); from <= maxId.get(); from += REBUILD_CHUNK_SIZE) {
+                    long fromId = from;
+                    long toId = from + REBUILD_CHUNK_SIZE - 1;
+                    chunks.add(executor.submit(() -> readOnlyTx.executeWithoutResult(status ->
+                            ticketRepository.findSearchDocumentsByIdRange(fromId, toId)
+                                    .forEach(doc -> fresh.put(doc.getId(), tokenize(doc))))));
+                }
+                for (Future<?> chunk : chunks) {
+                    chunk.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abortRebuild(e);
+                return;
+            } catch (ExecutionException e) {
+                abortRebuild(e.getCause());
+                return;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        synchronized (this) {
+            pendingChanges.forEach((id, tokens) -> fresh.apply(id, tokens.orElse(null)));
+            pendingChanges = null;
+            state = fresh;
+            ready = true;
+        }
+        log.info("TicketSearchIndex: Rebuilt index with {} tickets and {} terms in {} ms",
+                fresh.documents.size(), fresh.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Aggiorna l'indice dopo il commit di una creazione, modifica o cancellazione.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        TicketSnapshot after = event.getAfter();
+        Set<String> tokens = after == null ? null
+                : tokenize(after.getTitle(), after.getDescription(), after.getCategoryName(), after.getServiceTitle());
+        synchronized (this) {
+            state.apply(event.getTicketId(), tokens);
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getTicketId(), Optional.ofNullable(tokens));
+            }
+        }
+    }
+
+    private synchronized void abortRebuild(Throwable cause) {
+        pendingChanges = null;
+        log.error("TicketSearchIndex: Rebuild failed, keeping the previous index", cause);
+    }
+
+    private static Set<String> tokenize(TicketSearchDocument doc) {
+        return tokenize(doc.getTitle(), doc.getDescription(), doc.getCategoryName(), doc.getServiceTitle());
+    }
+
+    private static Set<String> tokenize(String... fields) {
+        return Arrays.stream(fields)
+                .filter(field -> field != null && !field.isBlank())
+                .flatMap(field -> TOKEN_SEPARATOR.splitAsStream(normalize(field)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase();
+    }
+
+    /**
+     * Struttura dell'indice: termine -> ID dei ticket (ordinata per le ricerche per prefisso)
+     * e ID -> termini del ticket (per rimuovere i termini vecchi a ogni aggiornamento).
+     */
+    private static class IndexState {
+
+        private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<Long, Set<String>> documents = new ConcurrentHashMap<>();
+
+        void put(Long id, Set<String> tokens) {
+            documents.put(id, tokens);
+            tokens.forEach(token -> postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        void apply(Long id, Set<String> tokens) {
+            Set<String> previous = documents.remove(id);
+            if (previous != null) {
+                previous.forEach(token -> postings.computeIfPresent(token, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                }));
+            }
+            if (tokens != null) {
+                put(id, tokens);
+            }
+        }
+
+        /**
+         * @return Gli ID dei ticket con almeno un termine che inizia per il prefisso, oppure null se superano il limite.
+         */
+        Set<Long> prefixMatches(String prefix, int limit) {
+            Set<Long> result = new HashSet<>();
+            for (Set<Long> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                result.addAll(ids);
+                if (result.size() > limit) {
+                    return null;
+                }
+            }
+            return result;
+        }
+    }
+}
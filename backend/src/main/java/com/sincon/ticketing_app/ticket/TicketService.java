@@ -1,38 +1,65 @@
 package com.sincon.ticketing_app.ticket;
 
+import com.sincon.ticketing_app.assignment.TicketAssignmentEngine;
 import com.sincon.ticketing_app.category.Category;
 import com.sincon.ticketing_app.category.CategoryService;
+import com.sincon.ticketing_app.common.CursorPageResponse;
+import com.sincon.ticketing_app.common.PageResponse;
+import com.sincon.ticketing_app.enums.TicketExportFormat;
 import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketSearchMode;
 import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.TicketVisibilityScope;
 import com.sincon.ticketing_app.enums.UserRole;
 import com.sincon.ticketing_app.exception.*;
 import com.sincon.ticketing_app.notification.EmailService;
+import com.sincon.ticketing_app.routing.TicketRoutingService;
 import com.sincon.ticketing_app.supportservice.SupportService;
 import com.sincon.ticketing_app.supportservice.SupportServiceService;
+import com.sincon.ticketing_app.ticketCounter.TicketCountCache;
+import com.sincon.ticketing_app.ticketCounter.TicketCounterService;
+import com.sincon.ticketing_app.user.AssigneeLoad;
 import com.sincon.ticketing_app.user.User;
 import com.sincon.ticketing_app.user.UserService;
 import static com.sincon.ticketing_app.ticket.TicketSpecifications.*;
 
+import jakarta.persistence.Tuple;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -45,6 +72,17 @@ public class TicketService {
     private final CategoryService categoryService;
     private final SupportServiceService supportServicesService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final TicketCountEstimator ticketCountEstimator;
+    private final TicketExportWriter ticketExportWriter;
+    private final PlatformTransactionManager transactionManager;
+    private final TicketCounterService ticketCounterService;
+    private final TicketCountCache ticketCountCache;
+    private final TicketAssignmentEngine ticketAssignmentEngine;
+    private final TicketRoutingService ticketRoutingService;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
    // --- Metodi di Utilità per l'Autenticazione ---
 
@@ -157,6 +195,7 @@ public TicketResponseDTO createOrUpdateTicket(TicketRequestDTO dto, Authenticati
     User ownerUser;
     User oldAssignee = null;
     TicketStatus oldStatus = null; // Store old status for transition check
+    TicketSnapshot beforeSnapshot = null; // Stato precedente per TicketChangedEvent
 
     boolean isNewTicketRequest = (ticketId == null);
     boolean isUserOnlyRole = hasRole(auth, UserRole.USER.name()) && !hasAnyHelperPmAdminRole(auth);
@@ -239,6 +278,7 @@ public TicketResponseDTO createOrUpdateTicket(TicketRequestDTO dto, Authenticati
         
         oldAssignee = ticket.getAssignedTo();
         oldStatus = ticket.getStatus(); // Store old status
+        beforeSnapshot = TicketSnapshot.of(ticket);
 
         boolean isTicketOwner = ticket.getOwner().getId().equals(currentUserId);
         boolean isAssignedToMe = ticket.getAssignedTo() != null && ticket.getAssignedTo().getId().equals(currentUserId);
@@ -395,6 +435,7 @@ public TicketResponseDTO createOrUpdateTicket(TicketRequestDTO dto, Authenticati
     // --- 7. Salva il ticket ---
     Ticket savedTicket = ticketRepository.save(ticket);
     log.info("Ticket saved successfully. New/Updated Ticket ID: {}", savedTicket.getId());
+    publishTicketChange(beforeSnapshot, savedTicket);
 
     // --- 8. Invio Email ---
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -436,27 +477,10 @@ public TicketResponseDTO getTicketDetails(Long ticketId, Authentication auth) {
 
     log.info("getTicketDetails: Current User ID: {}, Email: {}", currentUserId, currentUserEmail);
 
-    boolean isOwner = ticket.getOwner().getId().equals(currentUserId);
-    boolean isAssignedToMe = ticket.getAssignedTo() != null && ticket.getAssignedTo().getId().equals(currentUserId);
-    boolean isAssociatedByEmail = ticket.getEmail().equals(currentUserEmail);
-    boolean isAdmin = hasRole(auth, UserRole.ADMIN.name());
-    boolean isPm = hasRole(auth, UserRole.PM.name());
-    boolean isHelper = hasRole(auth, UserRole.HELPER_JUNIOR.name()) || hasRole(auth, UserRole.HELPER_SENIOR.name());
-    boolean isUser = hasRole(auth, UserRole.USER.name());
-
-    if (isAdmin || isPm) {
-        log.info("getTicketDetails: Admin/PM {} authorized to view ticket {}", currentUserId, ticketId);
+    if (canViewTicket(auth, ticket.getOwner().getId(), ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+            ticket.getEmail(), ticket.getStatus())) {
+        log.info("getTicketDetails: User {} authorized to view ticket {}", currentUserId, ticketId);
         return ticketMapper.toResponseDTO(ticket);
-    } else if (isHelper) {
-        if (isAssignedToMe || (isOwner && ticket.getStatus() == TicketStatus.DRAFT)) {
-            log.info("getTicketDetails: Helper {} authorized to view assigned/draft ticket {}", currentUserId, ticketId);
-            return ticketMapper.toResponseDTO(ticket);
-        }
-    } else if (isUser) {
-        if (isOwner || isAssociatedByEmail) {
-            log.info("getTicketDetails: User {} authorized to view owned/associated ticket {}", currentUserId, ticketId);
-            return ticketMapper.toResponseDTO(ticket);
-        }
     }
 
     log.warn("getTicketDetails: User {} (email: {}) not authorized to view ticket {}. Owner: {}, AssignedTo: {}, Ticket Email: {}",
@@ -465,6 +489,133 @@ public TicketResponseDTO getTicketDetails(Long ticketId, Authentication auth) {
     throw new UnauthorizedTicketActionException("Non autorizzato a visualizzare questo ticket.");
 }
 
+/**
+ * Recupera più ticket per ID con una sola query in fetch join, applicando a ciascuno gli stessi controlli
+ * di visibilità di {@link #getTicketDetails}. Non fallisce per i singoli ticket: li separa in trovati,
+ * non autorizzati e inesistenti.
+ *
+ * @param ids ID dei ticket richiesti (i duplicati vengono ignorati).
+ * @param auth Dettagli dell'utente autenticato.
+ * @return I ticket visibili, nell'ordine richiesto, e gli ID non autorizzati o inesistenti.
+ */
+public TicketBatchGetResponseDTO getTicketsByIds(List<Long> ids, Authentication auth) {
+    Set<Long> requestedIds = new LinkedHashSet<>(ids);
+    Map<Long, Ticket> ticketsById = ticketRepository.findDetailedByIdIn(requestedIds).stream()
+            .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+
+    List<TicketResponseDTO> found = new ArrayList<>();
+    List<Long> forbidden = new ArrayList<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : requestedIds) {
+        Ticket ticket = ticketsById.get(id);
+        if (ticket == null) {
+            missing.add(id);
+        } else if (canViewTicket(auth, ticket.getOwner().getId(), ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+                ticket.getEmail(), ticket.getStatus())) {
+            found.add(ticketMapper.toResponseDTO(ticket));
+        } else {
+            forbidden.add(id);
+        }
+    }
+    if (!forbidden.isEmpty()) {
+        log.warn("getTicketsByIds: User {} not authorized to view tickets {}", getCurrentUserId(auth), forbidden);
+    }
+    log.info("getTicketsByIds: Requested {} tickets, found {}, forbidden {}, missing {}",
+            requestedIds.size(), found.size(), forbidden.size(), missing.size());
+    return new TicketBatchGetResponseDTO(found, forbidden, missing);
+}
+
+/**
+ * Verifica se l'utente autenticato può visualizzare un ticket.
+ * ADMIN/PM vedono tutti i ticket, HELPER quelli assegnati e le proprie bozze,
+ * USER quelli creati o associati alla propria email.
+ */
+private boolean canViewTicket(Authentication auth, String ownerId, String assignedToId, String ticketEmail, TicketStatus status) {
+    return resolveViewer(auth).canView(ownerId, assignedToId, ticketEmail, status);
+}
+
+/**
+ * Ricava dall'utente autenticato l'insieme di ticket che può vedere (vedi {@link TicketViewer}).
+ *
+ * @param auth Dettagli dell'utente autenticato.
+ * @return L'utente con il suo ambito di visibilità.
+ */
+public TicketViewer resolveViewer(Authentication auth) {
+    TicketVisibilityScope scope;
+    if (hasRole(auth, UserRole.ADMIN.name()) || hasRole(auth, UserRole.PM.name())) {
+        scope = TicketVisibilityScope.ALL;
+    } else if (hasRole(auth, UserRole.HELPER_JUNIOR.name()) || hasRole(auth, UserRole.HELPER_SENIOR.name())) {
+        scope = TicketVisibilityScope.ASSIGNED_OR_OWN_DRAFT;
+    } else if (hasRole(auth, UserRole.USER.name())) {
+        scope = TicketVisibilityScope.OWNED_OR_EMAIL;
+    } else {
+        scope = TicketVisibilityScope.NONE;
+    }
+    return new TicketViewer(getCurrentUserId(auth), getCurrentUserEmail(auth), scope);
+}
+
+/**
+ * Calcola l'ETag del dettaglio di un ticket (id e data dell'ultima modifica del ticket e delle righe in join mostrate
+ * nella risposta, più i campi richiesti)
+ * leggendo solo una proiezione minima, così una richiesta condizionale può ricevere 304 senza caricare il ticket.
+ *
+ * @param ticketId ID del ticket.
+ * @param auth Dettagli dell'utente autenticato.
+ * @param fields Campi richiesti nella risposta (null per tutti).
+ * @return L'ETag del ticket.
+ */
+public String getTicketDetailsETag(Long ticketId, Authentication auth, Set<String> fields) {
+    TicketAccessView view = ticketRepository.findAccessViewById(ticketId)
+            .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    if (!canViewTicket(auth, view.getOwnerId(), view.getAssignedToId(), view.getEmail(), view.getStatus())) {
+        log.warn("getTicketDetailsETag: User {} not authorized to view ticket {}", getCurrentUserId(auth), ticketId);
+        throw new UnauthorizedTicketActionException("Non autorizzato a visualizzare questo ticket.");
+    }
+    Date version = view.getLastModifiedDate() != null ? view.getLastModifiedDate() : view.getCreatedDate();
+    return toETag(ticketId, millis(version), millis(view.getCategoryModifiedDate()), millis(view.getServiceModifiedDate()),
+            millis(view.getOwnerModifiedDate()), millis(view.getAssignedToModifiedDate()), fields);
+}
+
+/**
+ * Calcola l'ETag di una pagina di {@link #getTickets}: numero e massima data di modifica dei ticket filtrati
+ * (e di categorie, servizi e utenti in join), più utente e parametri della richiesta. Costa una sola query aggregata, senza caricare né serializzare la pagina.
+ */
+public String getTicketsETag(Pageable pageable, Authentication auth, TicketStatus status, TicketPriority priority,
+                             String search, TicketSearchMode searchMode, Set<String> fields) {
+    Specification<Ticket> spec = buildVisibilitySpecification(auth);
+    if (spec == null) {
+        return toETag("none", getCurrentUserId(auth));
+    }
+    return listETag(applyFilters(spec, status, priority, search, searchMode), getCurrentUserId(auth),
+            pageable, status, priority, search, searchMode, fields);
+}
+
+/**
+ * Calcola l'ETag di una pagina di {@link #getMyTicketsAndAssociatedByEmail}, come {@link #getTicketsETag}.
+ */
+public String getMyTicketsAndAssociatedETag(Pageable pageable, Authentication auth, TicketStatus status,
+                                            TicketPriority priority, String search, Set<String> fields) {
+    String userId = getCurrentUserId(auth);
+    Specification<Ticket> spec = applyFilters(byOwnerIdOrTicketEmail(userId, getCurrentUserEmail(auth)), status, priority, search);
+    return listETag(spec, userId, "associated", pageable, status, priority, search, fields);
+}
+
+private String listETag(Specification<Ticket> spec, Object... requestKey) {
+    Tuple version = ticketRepository.findListVersion(spec);
+    return toETag(version.get("count", Long.class), millis(version.get("lastModified", Date.class)),
+            millis(version.get("categoryModified", Date.class)), millis(version.get("serviceModified", Date.class)),
+            millis(version.get("ownerModified", Date.class)), millis(version.get("assignedToModified", Date.class)),
+            Arrays.toString(requestKey));
+}
+
+private static long millis(Date date) {
+    return date != null ? date.getTime() : 0;
+}
+
+private String toETag(Object... parts) {
+    return DigestUtils.md5DigestAsHex(Arrays.toString(parts).getBytes(StandardCharsets.UTF_8));
+}
+
 /**
  * Elimina un ticket, con controlli di autorizzazione.
  *
@@ -475,6 +626,7 @@ public TicketResponseDTO getTicketDetails(Long ticketId, Authentication auth) {
 public void deleteTicket(Long ticketId, Authentication auth) {
     Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     String currentUserEmail = getCurrentUserEmail(auth);
@@ -490,12 +642,14 @@ public void deleteTicket(Long ticketId, Authentication auth) {
     if (isAdmin) {
         log.info("deleteTicket: Admin {} deleting ticket {}", currentUserId, ticketId);
         ticketRepository.delete(ticket);
+        publishTicketChange(before, null);
         emailService.sendTicketDeletedEmail(ticket);
         return;
     } else if (hasRole(auth, UserRole.USER.name())) {
         if ((isOwner && ticket.getStatus() == TicketStatus.DRAFT) || isAssociatedByEmail) {
             log.info("deleteTicket: User {} deleting own DRAFT or associated ticket {}", currentUserId, ticketId);
             ticketRepository.delete(ticket);
+            publishTicketChange(before, null);
             emailService.sendTicketDeletedEmail(ticket);
             return;
         }
@@ -503,6 +657,7 @@ public void deleteTicket(Long ticketId, Authentication auth) {
         if (isAssignedToMe && ticket.getStatus() != TicketStatus.SOLVED) {
             log.info("deleteTicket: Helper/PM {} deleting assigned ticket {}", currentUserId, ticketId);
             ticketRepository.delete(ticket);
+            publishTicketChange(before, null);
             emailService.sendTicketDeletedEmail(ticket);
             return;
         }
@@ -526,6 +681,7 @@ public void deleteTicket(Long ticketId, Authentication auth) {
 public TicketResponseDTO acceptTicket(Long ticketId, Authentication auth) {
     Ticket ticket = ticketRepository.findDetailedById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     log.info("acceptTicket: Current User ID: {}", currentUserId);
@@ -551,6 +707,7 @@ public TicketResponseDTO acceptTicket(Long ticketId, Authentication auth) {
 
     ticket.setStatus(TicketStatus.ANSWERED);
     Ticket savedTicket = ticketRepository.save(ticket);
+    publishTicketChange(before, savedTicket);
     log.info("acceptTicket: Ticket {} accepted and saved. New status: {}", ticketId, savedTicket.getStatus());
 
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -574,6 +731,7 @@ public TicketResponseDTO acceptTicket(Long ticketId, Authentication auth) {
 public TicketResponseDTO rejectTicket(Long ticketId, String newAssignedToId, Authentication auth) {
     Ticket ticket = ticketRepository.findDetailedById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     log.info("rejectTicket: Current User ID: {}", currentUserId);
@@ -605,6 +763,7 @@ public TicketResponseDTO rejectTicket(Long ticketId, String newAssignedToId, Aut
     ticket.setAssignedDate(new Date());
     ticket.setStatus(TicketStatus.OPEN);
     Ticket savedTicket = ticketRepository.save(ticket);
+    publishTicketChange(before, savedTicket);
     log.info("rejectTicket: Ticket {} rejected and reassigned to {}. New status: {}", ticketId, newAssignee.getEmail(), savedTicket.getStatus());
 
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -629,6 +788,7 @@ public TicketResponseDTO rejectTicket(Long ticketId, String newAssignedToId, Aut
 public TicketResponseDTO escalateTicket(Long ticketId, String newAssignedToId, Authentication auth) {
     Ticket ticket = ticketRepository.findDetailedById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     log.info("escalateTicket: Current User ID: {}", currentUserId);
@@ -663,6 +823,7 @@ public TicketResponseDTO escalateTicket(Long ticketId, String newAssignedToId, A
     ticket.setAssignedDate(new Date());
     ticket.setStatus(TicketStatus.OPEN);
     Ticket savedTicket = ticketRepository.save(ticket);
+    publishTicketChange(before, savedTicket);
     log.info("escalateTicket: Ticket {} escalated and reassigned to {}. New status: {}", ticketId, newAssignee.getEmail(), savedTicket.getStatus());
 
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -686,6 +847,7 @@ public TicketResponseDTO escalateTicket(Long ticketId, String newAssignedToId, A
 public TicketResponseDTO updateStatus(Long ticketId, TicketStatus newStatus, Authentication auth) {
     Ticket ticket = ticketRepository.findDetailedById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     log.info("updateStatus: Current User ID: {}", currentUserId);
@@ -717,6 +879,7 @@ public TicketResponseDTO updateStatus(Long ticketId, TicketStatus newStatus, Aut
 
     ticket.setStatus(newStatus);
     Ticket savedTicket = ticketRepository.save(ticket);
+    publishTicketChange(before, savedTicket);
     log.info("updateStatus: Ticket {} status updated to {}.", ticketId, savedTicket.getStatus());
 
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -739,6 +902,7 @@ public TicketResponseDTO updateStatus(Long ticketId, TicketStatus newStatus, Aut
 public TicketResponseDTO assignTicket(Long ticketId, String helperId, Authentication auth) {
     Ticket ticket = ticketRepository.findDetailedById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket non trovato con ID: " + ticketId));
+    TicketSnapshot before = TicketSnapshot.of(ticket);
 
     String currentUserId = getCurrentUserId(auth);
     log.info("assignTicket: Current User ID: {}", currentUserId);
@@ -768,6 +932,7 @@ public TicketResponseDTO assignTicket(Long ticketId, String helperId, Authentica
     ticket.setAssignedTo(assignee);
     ticket.setAssignedDate(new Date());
     Ticket savedTicket = ticketRepository.save(ticket);
+    publishTicketChange(before, savedTicket);
     log.info("assignTicket: Ticket {} assigned to {}. Old assignee: {}", ticketId, assignee.getEmail(), oldAssignee != null ? oldAssignee.getEmail() : "N/A");
 
     if (emailService.isValidEmailProvider(savedTicket.getEmail())) {
@@ -778,27 +943,17 @@ public TicketResponseDTO assignTicket(Long ticketId, String helperId, Authentica
 }
 
 /**
- * Recupera tutti i ticket con paginazione, filtrati per ruolo utente.
+ * Costruisce la Specification di visibilità in base al ruolo dell'utente corrente.
  * ADMIN/PM vedono tutti i ticket (incluse bozze).
  * HELPER vedono solo i ticket a loro assegnati e le proprie bozze.
  * USER vede tutti i ticket associati alla propria email (owner o email del ticket).
  *
- * @param pageable Oggetto per la paginazione e ordinamento.
  * @param auth Dettagli dell'utente autenticato.
- * @param status Filtro per stato del ticket (opzionale).
- * @param priority Filtro per priorità del ticket (opzionale).
- * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
- * @return Una pagina di ticket.
+ * @return La Specification di visibilità, oppure null se il ruolo non è riconosciuto.
  */
-public Page<TicketResponseDTO> getTickets(Pageable pageable, Authentication auth,
-                                          TicketStatus status, TicketPriority priority, String search) {
+private Specification<Ticket> buildVisibilitySpecification(Authentication auth) {
     String currentUserId = getCurrentUserId(auth);
     String currentUserEmail = getCurrentUserEmail(auth);
-    
-    // Crea un nuovo Pageable con l'ordinamento forzato in DESC
-    Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdDate"));
-    
-    Specification<Ticket> spec = Specification.where(null); // Default: nessuna restrizione
 
     boolean isAdmin = hasRole(auth, UserRole.ADMIN.name());
     boolean isPm = hasRole(auth, UserRole.PM.name());
@@ -806,38 +961,308 @@ public Page<TicketResponseDTO> getTickets(Pageable pageable, Authentication auth
     boolean isUser = hasRole(auth, UserRole.USER.name());
 
     if (isAdmin || isPm) {
-        log.info("getTickets: Fetching ALL tickets for ADMIN/PM.");
-        // spec rimane null, quindi findAll recupererà tutto
+        log.info("buildVisibilitySpecification: Fetching ALL tickets for ADMIN/PM.");
+        return Specification.where(null); // Nessuna restrizione
     } else if (isHelper) {
-        spec = Specification.where(byAssignedToId(currentUserId))
-                .or(byOwnerIdAndStatus(currentUserId, TicketStatus.DRAFT));
-        log.info("getTickets: Fetching assigned tickets and own drafts for HELPER: {}", currentUserId);
+        log.info("buildVisibilitySpecification: Fetching assigned tickets and own drafts for HELPER: {}", currentUserId);
+        return byAssignedToIdOrOwnDraft(currentUserId);
     } else if (isUser) {
-        spec = byOwnerIdOrTicketEmail(currentUserId, currentUserEmail);
-        log.info("getTickets: Fetching all tickets (including drafts) for USER: {} or email: {}", currentUserId,
+        log.info("buildVisibilitySpecification: Fetching all tickets (including drafts) for USER: {} or email: {}", currentUserId,
                 currentUserEmail);
-    } else {
-        log.warn("getTickets: Unauthorized access attempt to getTickets by user: {}", currentUserId);
-        return Page.empty(pageable); // Nessun ruolo riconosciuto, restituisci pagina vuota
+        return byOwnerIdOrTicketEmail(currentUserId, currentUserEmail);
     }
+    log.warn("buildVisibilitySpecification: Unauthorized access attempt by user: {}", currentUserId);
+    return null;
+}
+
+/**
+ * Applica i filtri opzionali (stato, priorità, ricerca testuale) a una Specification di visibilità.
+ *
+ * @param spec La Specification di partenza.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @return La Specification con i filtri applicati.
+ */
+private Specification<Ticket> applyFilters(Specification<Ticket> spec, TicketStatus status, TicketPriority priority, String search) {
+    return applyFilters(spec, status, priority, search, TicketSearchMode.FULLTEXT);
+}
 
-    // --- Applicazione dei filtri aggiuntivi ---
+/**
+ * Come {@link #applyFilters(Specification, TicketStatus, TicketPriority, String)}, con la modalità di ricerca indicata.
+ */
+private Specification<Ticket> applyFilters(Specification<Ticket> spec, TicketStatus status, TicketPriority priority,
+                                           String search, TicketSearchMode searchMode) {
     if (status != null) {
         spec = spec.and(byStatus(status));
-        log.info("getTickets: Applying status filter: {}", status);
+        log.info("applyFilters: Applying status filter: {}", status);
     }
     if (priority != null) {
-        spec = spec.and(byPriority(priority)); // Usa la nuova specifica byPriority
-        log.info("getTickets: Applying priority filter: {}", priority);
+        spec = spec.and(byPriority(priority));
+        log.info("applyFilters: Applying priority filter: {}", priority);
+    }
+    if (search != null && !search.trim().isEmpty() && searchMode == TicketSearchMode.FUZZY) {
+        spec = spec.and(byFuzzySearch(search.trim()));
+        log.info("applyFilters: Applying fuzzy search filter: '{}'", search.trim());
+    } else if (search != null && !search.trim().isEmpty()) {
+        String term = search.trim();
+        // Se l'indice in memoria è attivo risolve direttamente gli ID, altrimenti usa la ricerca full-text del DB
+        spec = spec.and(ticketSearchIndex.findMatchingIds(term)
+                .map(TicketSpecifications::byIdIn)
+                .orElseGet(() -> byFullTextSearch(term)));
+        log.info("applyFilters: Applying search filter: '{}'", search.trim());
+    }
+    return spec;
+}
+
+/**
+ * Restituisce il Pageable da usare per le liste paginate: ordinato per la chiave scelta dal client (vedi {@link TicketSort},
+ * default createdDate DESC), oppure non ordinato quando è presente una ricerca senza ordinamento esplicito
+ * (l'ordine per rilevanza è impostato da {@link #applyRankOrdering}).
+ */
+private Pageable resolvePageable(Pageable pageable, String search) {
+    if (search != null && !search.trim().isEmpty() && pageable.getSort().isUnsorted()) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+    return TicketSort.resolve(pageable);
+}
+
+/**
+ * Se è presente una ricerca, aggiunge alla Specification l'ordinamento per rilevanza full-text
+ * o per similarità (modalità FUZZY).
+ */
+private Specification<Ticket> applyRankOrdering(Specification<Ticket> spec, String search, TicketSearchMode searchMode) {
+    if (search == null || search.trim().isEmpty()) {
+        return spec;
     }
-    if (search != null && !search.trim().isEmpty()) {
-        spec = spec.and(byKeywordInTicketDetails(search.trim())); // Usa la nuova specifica byKeywordInTicketDetails
-        log.info("getTickets: Applying search filter: '{}'", search.trim());
+    return spec.and(searchMode == TicketSearchMode.FUZZY
+            ? orderByFuzzySimilarity(search.trim())
+            : orderByFullTextRank(search.trim()));
+}
+
+/**
+ * Recupera tutti i ticket con paginazione, filtrati per ruolo utente.
+ * ADMIN/PM vedono tutti i ticket (incluse bozze).
+ * HELPER vedono solo i ticket a loro assegnati e le proprie bozze.
+ * USER vede tutti i ticket associati alla propria email (owner o email del ticket).
+ *
+ * @param pageable Oggetto per la paginazione e ordinamento.
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @param searchMode Modalità di ricerca: FULLTEXT (default) o FUZZY, tollerante agli errori di battitura.
+ * @param fields Campi di TicketResponseDTO da leggere dal DB (null per tutti); gli altri restano null.
+ * @return Una pagina di ticket.
+ */
+public Page<TicketResponseDTO> getTickets(Pageable pageable, Authentication auth, TicketStatus status,
+                                          TicketPriority priority, String search, TicketSearchMode searchMode,
+                                          Set<String> fields) {
+    String currentUserId = getCurrentUserId(auth);
+    
+    // Ordinamento forzato in DESC per data, oppure per rilevanza se è presente una ricerca
+    Pageable sortedPageable = resolvePageable(pageable, search);
+    
+    Specification<Ticket> spec = buildVisibilitySpecification(auth);
+    if (spec == null) {
+        return Page.empty(pageable); // Nessun ruolo riconosciuto, restituisci pagina vuota
     }
+    spec = applyRankOrdering(applyFilters(spec, status, priority, search, searchMode), search, searchMode);
 
-    Page<Ticket> ticketsPage = ticketRepository.findAll(spec, sortedPageable); // Usa sortedPageable
+    // Proiezione diretta sul DTO: una sola query in join invece di caricare owner/assegnatario/categoria/servizio per ogni riga
+    Page<TicketResponseDTO> ticketsPage = ticketRepository.findResponsePage(spec, sortedPageable, fields); // Usa sortedPageable
     log.info("getTickets: Found {} tickets for user {}. Role: {}. Total elements in page: {}", ticketsPage.getTotalElements(), currentUserId, auth.getAuthorities(), ticketsPage.getContent().size());
-    return ticketsPage.map(ticketMapper::toResponseDTO);
+    return ticketsPage;
+}
+
+/**
+ * Recupera i ticket visibili all'utente in modalità "scorrimento infinito": legge size + 1 righe per sapere
+ * se esiste una pagina successiva, senza il COUNT(*) esatto eseguito da {@link #getTickets}.
+ * Con estimateTotal il totale è approssimato (stima del planner per ADMIN/PM senza filtri, altrimenti conteggio in cache);
+ * sull'ultima pagina il totale è sempre esatto.
+ *
+ * @param pageable Oggetto per la paginazione.
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @param searchMode Modalità di ricerca: FULLTEXT (default) o FUZZY.
+ * @param estimateTotal Se true, include un totale approssimato; altrimenti totalElements e totalPages valgono -1.
+ * @return Una pagina di ticket con il flag "estimated".
+ */
+public PageResponse<TicketResponseDTO> getTicketsSlice(Pageable pageable, Authentication auth, TicketStatus status,
+                                                       TicketPriority priority, String search,
+                                                       TicketSearchMode searchMode, boolean estimateTotal) {
+    String currentUserId = getCurrentUserId(auth);
+    Pageable sortedPageable = resolvePageable(pageable, search);
+
+    Specification<Ticket> visibilitySpec = buildVisibilitySpecification(auth);
+    if (visibilitySpec == null) {
+        return PageResponse.<TicketResponseDTO>builder()
+                .content(List.of()).number(pageable.getPageNumber()).size(pageable.getPageSize())
+                .first(true).last(true).build();
+    }
+    Specification<Ticket> filterSpec = applyFilters(visibilitySpec, status, priority, search, searchMode);
+    Slice<TicketResponseDTO> slice = ticketRepository.findResponseSlice(
+            applyRankOrdering(filterSpec, search, searchMode), sortedPageable);
+
+    long totalElements = -1;
+    boolean estimated = false;
+    if (!slice.hasNext()) {
+        // Ultima pagina: il totale è noto senza contare
+        totalElements = sortedPageable.getOffset() + slice.getNumberOfElements();
+    } else if (estimateTotal) {
+        boolean seesAllTickets = hasRole(auth, UserRole.ADMIN.name()) || hasRole(auth, UserRole.PM.name());
+        boolean unfiltered = status == null && priority == null && (search == null || search.trim().isEmpty());
+        long estimate;
+        if (seesAllTickets && unfiltered) {
+            estimate = ticketCountEstimator.estimateAll();
+        } else {
+            String cacheKey = String.join("|", seesAllTickets ? "*" : currentUserId, String.valueOf(status),
+                    String.valueOf(priority), String.valueOf(searchMode), search == null ? "" : search.trim());
+            estimate = ticketCountEstimator.estimate(cacheKey, filterSpec);
+        }
+        // Esiste almeno una riga oltre questa pagina, anche se la stima è più bassa
+        totalElements = Math.max(estimate, sortedPageable.getOffset() + slice.getNumberOfElements() + 1);
+        estimated = true;
+    }
+    log.info("getTicketsSlice: Returned {} tickets for user {}. hasNext: {}, total: {} (estimated: {})",
+            slice.getNumberOfElements(), currentUserId, slice.hasNext(), totalElements, estimated);
+
+    return PageResponse.<TicketResponseDTO>builder()
+            .content(slice.getContent())
+            .number(slice.getNumber())
+            .size(slice.getSize())
+            .totalElements(totalElements)
+            .totalPages(totalElements < 0 ? -1 : (int) ((totalElements + slice.getSize() - 1) / slice.getSize()))
+            .first(slice.isFirst())
+            .last(slice.isLast())
+            .estimated(estimated)
+            .build();
+}
+
+/**
+ * Calcola i conteggi per stato, priorità, categoria e servizio dei ticket visibili all'utente che soddisfano i filtri.
+ * Tutti i conteggi derivano da una sola query GROUP BY sulle quattro dimensioni, aggregata poi in memoria:
+ * un round trip al posto di una richiesta per ogni valore dei filtri.
+ * I conteggi tengono conto di tutti i filtri applicati (anche di quello sulla stessa dimensione).
+ *
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @param searchMode Modalità di ricerca: FULLTEXT (default) o FUZZY.
+ * @return I conteggi per ogni dimensione.
+ */
+public TicketFacetsDTO getTicketFacets(Authentication auth, TicketStatus status, TicketPriority priority,
+                                       String search, TicketSearchMode searchMode) {
+    Map<TicketStatus, Long> statusCounts = new EnumMap<>(TicketStatus.class);
+    Arrays.stream(TicketStatus.values()).forEach(value -> statusCounts.put(value, 0L));
+    Map<TicketPriority, Long> priorityCounts = new EnumMap<>(TicketPriority.class);
+    Arrays.stream(TicketPriority.values()).forEach(value -> priorityCounts.put(value, 0L));
+    Map<Long, TicketFacetsDTO.FacetValue> categoryCounts = new HashMap<>();
+    Map<Long, TicketFacetsDTO.FacetValue> serviceCounts = new HashMap<>();
+    long total = 0;
+
+    Specification<Ticket> spec = buildVisibilitySpecification(auth);
+    if (spec != null) {
+        for (Tuple row : ticketRepository.countFacets(applyFilters(spec, status, priority, search, searchMode))) {
+            long count = row.get("count", Long.class);
+            total += count;
+            TicketStatus rowStatus = row.get("status", TicketStatus.class);
+            if (rowStatus != null) {
+                statusCounts.merge(rowStatus, count, Long::sum);
+            }
+            TicketPriority rowPriority = row.get("priority", TicketPriority.class);
+            if (rowPriority != null) {
+                priorityCounts.merge(rowPriority, count, Long::sum);
+            }
+            addFacetCount(categoryCounts, row.get("categoryId", Long.class), row.get("categoryName", String.class), count);
+            addFacetCount(serviceCounts, row.get("serviceId", Long.class), row.get("serviceTitle", String.class), count);
+        }
+    }
+    log.info("getTicketFacets: {} tickets for user {} across {} categories and {} services",
+            total, getCurrentUserId(auth), categoryCounts.size(), serviceCounts.size());
+
+    Comparator<TicketFacetsDTO.FacetValue> byCountDesc =
+            Comparator.comparingLong(TicketFacetsDTO.FacetValue::getCount).reversed();
+    return TicketFacetsDTO.builder()
+            .totalTickets(total)
+            .status(statusCounts)
+            .priority(priorityCounts)
+            .categories(categoryCounts.values().stream().sorted(byCountDesc).toList())
+            .supportServices(serviceCounts.values().stream().sorted(byCountDesc).toList())
+            .build();
+}
+
+private void addFacetCount(Map<Long, TicketFacetsDTO.FacetValue> counts, Long id, String name, long count) {
+    if (id == null) {
+        return; // Ticket senza categoria/servizio
+    }
+    TicketFacetsDTO.FacetValue facet = counts.computeIfAbsent(id, key -> new TicketFacetsDTO.FacetValue(id, name, 0));
+    facet.setCount(facet.getCount() + count);
+}
+
+/**
+ * Esporta tutti i ticket visibili all'utente che soddisfano i filtri, scrivendoli direttamente sulla risposta.
+ * Usa la stessa Specification di visibilità di {@link #getTickets} e legge le righe con un cursore JDBC
+ * in una transazione di sola lettura: la memoria usata resta costante qualunque sia il numero di ticket.
+ *
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @param searchMode Modalità di ricerca: FULLTEXT (default) o FUZZY.
+ * @param format Formato di esportazione (CSV o NDJSON).
+ * @return Il corpo della risposta, scritto in modo asincrono.
+ */
+public StreamingResponseBody exportTickets(Authentication auth, TicketStatus status, TicketPriority priority,
+                                           String search, TicketSearchMode searchMode, TicketExportFormat format) {
+    String currentUserId = getCurrentUserId(auth);
+    // La Specification va costruita qui: il corpo viene scritto su un altro thread, senza contesto di sicurezza
+    Specification<Ticket> spec = buildVisibilitySpecification(auth);
+    if (spec == null) {
+        spec = byIdIn(List.of()); // Nessun ruolo riconosciuto: esportazione vuota
+    }
+    Specification<Ticket> exportSpec = applyFilters(spec, status, priority, search, searchMode);
+    Sort sort = Sort.by(Sort.Direction.DESC, "createdDate").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    return outputStream -> {
+        long start = System.currentTimeMillis();
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        Long exported = readOnlyTx.execute(txStatus -> {
+            try (Stream<TicketResponseDTO> rows = ticketRepository.streamResponses(exportSpec, sort)) {
+                return ticketExportWriter.write(rows, outputStream, format);
+            }
+        });
+        log.info("exportTickets: Exported {} tickets as {} for user {} in {} ms",
+                exported, format, currentUserId, System.currentTimeMillis() - start);
+    };
+}
+
+/**
+ * Recupera i ticket visibili all'utente con paginazione keyset su (createdDate, id).
+ * Il costo di ogni pagina è indipendente dalla sua profondità e il conteggio totale è opzionale.
+ *
+ * @param after Cursore opaco: restituisce i ticket successivi (più vecchi) a questa posizione (opzionale).
+ * @param before Cursore opaco: restituisce i ticket precedenti (più recenti) a questa posizione (opzionale).
+ * @param size Numero massimo di ticket da restituire.
+ * @param includeTotal Se true, calcola anche il numero totale di ticket filtrati.
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @return Una pagina keyset di ticket.
+ */
+public CursorPageResponse<TicketResponseDTO> getTicketsByCursor(String after, String before, int size, boolean includeTotal,
+                                                                Authentication auth, TicketStatus status,
+                                                                TicketPriority priority, String search) {
+    Specification<Ticket> spec = buildVisibilitySpecification(auth);
+    if (spec == null) {
+        return CursorPageResponse.<TicketResponseDTO>builder().content(List.of()).size(0).build();
+    }
+    return findCursorPage(applyFilters(spec, status, priority, search), after, before, size, includeTotal);
 }
 
 /**
@@ -849,40 +1274,98 @@ public Page<TicketResponseDTO> getTickets(Pageable pageable, Authentication auth
  * @param status Filtro per stato del ticket (opzionale).
  * @param priority Filtro per priorità del ticket (opzionale).
  * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @param fields Campi di TicketResponseDTO da leggere dal DB (null per tutti); gli altri restano null.
  * @return Una pagina di ticket.
  */
 public Page<TicketResponseDTO> getMyTicketsAndAssociatedByEmail(Pageable pageable, Authentication auth,
-                                                                TicketStatus status, TicketPriority priority, String search) {
+                                                                TicketStatus status, TicketPriority priority, String search,
+                                                                Set<String> fields) {
     String userId = getCurrentUserId(auth);
     String userEmail = getCurrentUserEmail(auth);
     log.info("getMyTicketsAndAssociatedByEmail: Fetching my tickets and associated by email for user ID: {} or email: {}", userId,
             userEmail);
 
-    // Crea un nuovo Pageable con l'ordinamento forzato in DESC
-    Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdDate"));
+    // Ordinamento forzato in DESC per data, oppure per rilevanza se è presente una ricerca
+    Pageable sortedPageable = resolvePageable(pageable, search);
 
-    Specification<Ticket> spec = byOwnerIdOrTicketEmail(userId, userEmail);
-    
-    // --- Applicazione dei filtri aggiuntivi ---
-    if (status != null) {
-        spec = spec.and(byStatus(status));
-        log.info("getMyTicketsAndAssociatedByEmail: Applying status filter: {}", status);
+    Specification<Ticket> spec = applyRankOrdering(
+            applyFilters(byOwnerIdOrTicketEmail(userId, userEmail), status, priority, search), search, TicketSearchMode.FULLTEXT);
+
+    return ticketRepository.findResponsePage(spec, sortedPageable, fields); // Usa sortedPageable
+}
+
+/**
+ * Variante keyset di {@link #getMyTicketsAndAssociatedByEmail}.
+ *
+ * @param after Cursore opaco per la pagina successiva (opzionale).
+ * @param before Cursore opaco per la pagina precedente (opzionale).
+ * @param size Numero massimo di ticket da restituire.
+ * @param includeTotal Se true, calcola anche il numero totale di ticket filtrati.
+ * @param auth Dettagli dell'utente autenticato.
+ * @param status Filtro per stato del ticket (opzionale).
+ * @param priority Filtro per priorità del ticket (opzionale).
+ * @param search Termine di ricerca per titolo/descrizione/categoria/servizio (opzionale).
+ * @return Una pagina keyset di ticket.
+ */
+public CursorPageResponse<TicketResponseDTO> getMyTicketsAndAssociatedByCursor(String after, String before, int size,
+                                                                               boolean includeTotal, Authentication auth,
+                                                                               TicketStatus status, TicketPriority priority,
+                                                                               String search) {
+    String userId = getCurrentUserId(auth);
+    String userEmail = getCurrentUserEmail(auth);
+    Specification<Ticket> spec = applyFilters(byOwnerIdOrTicketEmail(userId, userEmail), status, priority, search);
+    return findCursorPage(spec, after, before, size, includeTotal);
+}
+
+/**
+ * Esegue una query keyset: legge size + 1 righe a partire dal cursore per sapere se esiste una pagina successiva,
+ * senza OFFSET e senza COUNT (a meno che includeTotal sia true).
+ */
+private CursorPageResponse<TicketResponseDTO> findCursorPage(Specification<Ticket> spec, String after, String before,
+                                                             int size, boolean includeTotal) {
+    if (after != null && before != null) {
+        throw new ValidationException("Specificare solo uno tra i cursori 'after' e 'before'.");
     }
-    if (priority != null) {
-        spec = spec.and(byPriority(priority)); // Usa la nuova specifica byPriority
-        log.info("getMyTicketsAndAssociatedByEmail: Applying priority filter: {}", priority);
+    int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    boolean backward = before != null;
+
+    Specification<Ticket> pageSpec = spec;
+    if (after != null) {
+        pageSpec = pageSpec.and(afterCursor(TicketCursor.decode(after)));
+    } else if (backward) {
+        pageSpec = pageSpec.and(beforeCursor(TicketCursor.decode(before)));
     }
-    if (search != null && !search.trim().isEmpty()) {
-        spec = spec.and(byKeywordInTicketDetails(search.trim())); // Usa la nuova specifica byKeywordInTicketDetails
-        log.info("getMyTicketsAndAssociatedByEmail: Applying search filter: '{}'", search.trim());
+
+    // Andando all'indietro si legge in ordine crescente e poi si inverte la lista
+    Sort.Direction direction = backward ? Sort.Direction.ASC : Sort.Direction.DESC;
+    Sort keysetSort = Sort.by(direction, "createdDate").and(Sort.by(direction, "id"));
+    List<TicketResponseDTO> rows = new ArrayList<>(ticketRepository.findResponseList(pageSpec, keysetSort, pageSize + 1));
+
+    boolean hasMore = rows.size() > pageSize;
+    if (hasMore) {
+        rows.remove(rows.size() - 1);
+    }
+    if (backward) {
+        Collections.reverse(rows);
     }
 
-    Page<Ticket> ticketsPage = ticketRepository.findAll(spec, sortedPageable); // Usa sortedPageable
-    return ticketsPage.map(ticketMapper::toResponseDTO);
+    boolean hasNext = backward || hasMore;
+    boolean hasPrevious = backward ? hasMore : after != null;
+
+    return CursorPageResponse.<TicketResponseDTO>builder()
+            .content(rows)
+            .size(rows.size())
+            .hasNext(hasNext && !rows.isEmpty())
+            .hasPrevious(hasPrevious && !rows.isEmpty())
+            .nextCursor(hasNext && !rows.isEmpty() ? TicketCursor.of(rows.get(rows.size() - 1)).encode() : null)
+            .previousCursor(hasPrevious && !rows.isEmpty() ? TicketCursor.of(rows.get(0)).encode() : null)
+            .totalElements(includeTotal ? ticketRepository.count(spec) : null)
+            .build();
 }
 
 /**
  * Recupera tutte le bozze create dall'utente corrente.
+ * Senza limiti: per le liste usare {@link #getDraftSummaries}.
  *
  * @param auth Dettagli dell'utente autenticato.
  * @return Lista di bozze.
@@ -899,6 +1382,21 @@ public List<TicketResponseDTO> getDrafts(Authentication auth) {
             .toList();
 }
 
+/**
+ * Recupera una pagina di riepiloghi delle bozze dell'utente corrente, dalla modificata più di recente.
+ * Il Sort del Pageable viene ignorato: l'ordine è fisso per poter usare l'indice dedicato.
+ *
+ * @param pageable Numero e dimensione della pagina.
+ * @param auth Dettagli dell'utente autenticato.
+ * @return Una pagina di riepiloghi.
+ */
+public Page<TicketDraftSummaryDTO> getDraftSummaries(Pageable pageable, Authentication auth) {
+    String userId = getCurrentUserId(auth);
+    log.info("getDraftSummaries: Fetching drafts page {} (size {}) for user ID: {}", pageable.getPageNumber(), pageable.getPageSize(), userId);
+    return ticketRepository.findDraftSummaries(userId, TicketStatus.DRAFT,
+            PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_CURSOR_PAGE_SIZE)));
+}
+
 // Metodi per i conteggi della dashboard
 public DashboardCountsDTO getDashboardCounts(Authentication auth) {
     String userId = getCurrentUserId(auth);
@@ -913,36 +1411,37 @@ public DashboardCountsDTO getDashboardCounts(Authentication auth) {
     boolean isPm = hasRole(auth, UserRole.PM.name());
     boolean isHelper = hasRole(auth, UserRole.HELPER_JUNIOR.name()) || hasRole(auth, UserRole.HELPER_SENIOR.name());
 
+    // ADMIN/PM e HELPER leggono dalla cache in memoria (TicketCountCache), se attiva; altrimenti tutti i ruoli
+    // leggono i contatori mantenuti in modo incrementale (TicketCounterService). Finché non sono pronti,
+    // una sola query GROUP BY status sull'insieme visibile al ruolo: i conteggi per stato sono il totale del gruppo
+    // (ADMIN/PM, USER) o la parte assegnata all'utente (HELPER); le bozze sono quelle di cui l'utente è owner
+    boolean useCache = ticketCountCache.isReady();
+    boolean useCounters = ticketCounterService.isReady();
     if (isAdmin || isPm) {
         log.info("getDashboardCounts: Processing for ADMIN/PM role. User ID: {}", userId);
-        counts.setTotalTickets(ticketRepository.count());
-        counts.setOpenTickets(ticketRepository.countByStatus(TicketStatus.OPEN));
-        counts.setAnsweredTickets(ticketRepository.countByStatus(TicketStatus.ANSWERED));
-        counts.setSolvedTickets(ticketRepository.countByStatus(TicketStatus.SOLVED));
-        counts.setDraftTickets(ticketRepository.countByStatus(TicketStatus.DRAFT));
+        if (useCache) {
+            counts = ticketCountCache.getGlobalCounts();
+        } else if (useCounters) {
+            counts = ticketCounterService.getGlobalCounts();
+        } else {
+            fillDashboardCounts(counts, ticketRepository.countStatusBreakdown(null, userId), "count", "count");
+        }
     } else if (isHelper) {
         log.info("getDashboardCounts: Processing for HELPER role. User ID: {}", userId);
-        Specification<Ticket> helperSpec = Specification.where(byAssignedToId(userId))
-                                                .or(byOwnerIdAndStatus(userId, TicketStatus.DRAFT));
-        counts.setTotalTickets(ticketRepository.count(helperSpec));
-        counts.setOpenTickets(
-                ticketRepository.count(Specification.where(byAssignedToId(userId)).and(byStatus(TicketStatus.OPEN))));
-        counts.setAnsweredTickets(
-                ticketRepository.count(Specification.where(byAssignedToId(userId)).and(byStatus(TicketStatus.ANSWERED))));
-        counts.setSolvedTickets(
-                ticketRepository.count(Specification.where(byAssignedToId(userId)).and(byStatus(TicketStatus.SOLVED))));
-        counts.setDraftTickets(ticketRepository.countByOwner_IdAndStatus(userId, TicketStatus.DRAFT));
+        if (useCache) {
+            counts = ticketCountCache.getHelperCounts(userId);
+        } else if (useCounters) {
+            counts = ticketCounterService.getHelperCounts(userId);
+        } else {
+            fillDashboardCounts(counts, ticketRepository.countStatusBreakdown(byAssignedToIdOrOwnDraft(userId), userId), "assigned", "owned");
+        }
     } else if (isUserRole) {
         log.info("getDashboardCounts: Processing for USER role. User ID: {}, Email: {}", userId, userEmail);
-        Specification<Ticket> userTicketsSpec = byOwnerIdOrTicketEmail(userId, userEmail);
-        counts.setTotalTickets(ticketRepository.count(userTicketsSpec));
-        counts.setOpenTickets(
-                ticketRepository.count(Specification.where(userTicketsSpec).and(byStatus(TicketStatus.OPEN))));
-        counts.setAnsweredTickets(
-                ticketRepository.count(Specification.where(userTicketsSpec).and(byStatus(TicketStatus.ANSWERED))));
-        counts.setSolvedTickets(
-                ticketRepository.count(Specification.where(userTicketsSpec).and(byStatus(TicketStatus.SOLVED))));
-        counts.setDraftTickets(ticketRepository.countByOwner_IdAndStatus(userId, TicketStatus.DRAFT));
+        if (useCounters) {
+            counts = ticketCounterService.getUserCounts(userId, userEmail);
+        } else {
+            fillDashboardCounts(counts, ticketRepository.countStatusBreakdown(byOwnerIdOrTicketEmail(userId, userEmail), userId), "count", "owned");
+        }
     } else {
         log.warn("getDashboardCounts: Unauthorized access attempt to getDashboardCounts by user: {}", userId);
         return new DashboardCountsDTO(0, 0, 0, 0, 0);
@@ -954,6 +1453,38 @@ public DashboardCountsDTO getDashboardCounts(Authentication auth) {
     return counts;
 }
 
+/**
+ * Riempie i conteggi della dashboard dalle tuple di {@link TicketRepositoryCustom#countStatusBreakdown}.
+ * @param statusAlias Alias da usare per i ticket OPEN/ANSWERED/SOLVED.
+ * @param draftAlias Alias da usare per le bozze.
+ */
+private void fillDashboardCounts(DashboardCountsDTO counts, List<Tuple> rows, String statusAlias, String draftAlias) {
+    for (Tuple row : rows) {
+        TicketStatus status = row.get("status", TicketStatus.class);
+        counts.setTotalTickets(counts.getTotalTickets() + row.get("count", Long.class));
+        if (status == null) {
+            continue;
+        }
+        switch (status) {
+            case OPEN -> counts.setOpenTickets(row.get(statusAlias, Long.class));
+            case ANSWERED -> counts.setAnsweredTickets(row.get(statusAlias, Long.class));
+            case SOLVED -> counts.setSolvedTickets(row.get(statusAlias, Long.class));
+            case DRAFT -> counts.setDraftTickets(row.get(draftAlias, Long.class));
+        }
+    }
+}
+
+/**
+ * Pubblica un {@link TicketChangedEvent} per la modifica appena effettuata.
+ * Lo snapshot successivo viene preso qui, dentro la transazione, perché i listener AFTER_COMMIT non hanno più una sessione.
+ *
+ * @param before Stato precedente (null per una creazione).
+ * @param after Ticket salvato (null per una cancellazione).
+ */
+private void publishTicketChange(TicketSnapshot before, Ticket after) {
+    eventPublisher.publishEvent(new TicketChangedEvent(before, after != null ? TicketSnapshot.of(after) : null));
+}
+
 /**
  * Assegnazione automatica del ticket a Helper_Junior, Helper_Senior, PM, o Admin
  * in base al minor numero di ticket OPEN o ANSWERED assegnati.
@@ -962,38 +1493,55 @@ public DashboardCountsDTO getDashboardCounts(Authentication auth) {
  */
 private void assignTicketAutomatically(Ticket ticket) {
     log.info("assignTicketAutomatically: Attempting automatic assignment for ticket ID: {}", ticket.getId());
-    
-    // Recupera tutti gli utenti che possono essere assegnatari
-    List<User> potentialAssignees = userService.getUsersEntitiesByRoles(List.of(
-        UserRole.HELPER_JUNIOR,
-        UserRole.HELPER_SENIOR,
-        UserRole.PM,
-        UserRole.ADMIN
-    ));
-
-    if (potentialAssignees.isEmpty()) {
+
+    // Assegnatari competenti per il servizio o la categoria del ticket, con il loro peso, dalla tabella di routing in
+    // memoria: se nessuno di loro può ricevere il ticket (o non ce ne sono) la scelta avviene tra tutti
+    Map<String, Integer> skilledAssignees = ticketRoutingService.getCandidates(
+            ticket.getCategory() != null ? ticket.getCategory().getId() : null,
+            ticket.getService() != null ? ticket.getService().getId() : null);
+
+    // Con il motore di assegnazione attivo la scelta avviene in memoria, senza query: l'assegnatario scelto viene
+    // prenotato atomicamente, così le creazioni concorrenti non scelgono tutte lo stesso
+    if (ticketAssignmentEngine.isReady()) {
+        Optional<String> assigneeId = skilledAssignees.isEmpty()
+                ? Optional.empty()
+                : ticketAssignmentEngine.reserveLeastLoaded(skilledAssignees);
+        if (assigneeId.isEmpty()) {
+            assigneeId = ticketAssignmentEngine.reserveLeastLoaded();
+        }
+        if (assigneeId.isPresent()) {
+            ticket.setAssignedTo(userService.getUserReference(assigneeId.get()));
+            if (ticket.getAssignedDate() == null) {
+                ticket.setAssignedDate(new Date());
+            }
+            log.info("assignTicketAutomatically: Ticket {} assigned to user {} (Load: {}).",
+                     ticket.getId(), assigneeId.get(), ticketAssignmentEngine.getLoad(assigneeId.get()));
+            return;
+        }
+    }
+
+    // Altrimenti (motore non pronto o più istanze) i carichi si leggono dal DB con una sola query raggruppata, dopo
+    // aver preso un lock di Postgres tenuto fino al commit: le assegnazioni automatiche concorrenti, anche di altre
+    // istanze, vengono serializzate e ognuna vede i ticket assegnati dalle precedenti
+    ticketRepository.acquireAdvisoryXactLock(TicketAssignmentEngine.ASSIGNMENT_LOCK_KEY);
+    List<AssigneeLoad> assigneesLoad = userService.getAssigneeLoads(TicketAssignmentEngine.ASSIGNEE_ROLES,
+            TicketAssignmentEngine.WORKLOAD_STATUSES);
+
+    if (assigneesLoad.isEmpty()) {
         log.error("assignTicketAutomatically: Nessun helper, PM o admin disponibile per l'assegnazione automatica per ticket ID: {}. Il ticket rimarrà non assegnato.", ticket.getId());
         ticket.setAssignedTo(null);
         ticket.setAssignedDate(null);
         return;
     }
 
-    // Mappa gli assegnatari potenziali al loro carico di lavoro attuale
-    Map<User, Long> assigneesLoad = potentialAssignees.stream()
-        .collect(Collectors.toMap(
-            user -> user,
-            user -> ticketRepository.count(
-                Specification.where(byAssignedToId(user.getId()))
-                    .and(byStatus(TicketStatus.OPEN))
-                    .or(byAssignedToId(user.getId()).and(byStatus(TicketStatus.ANSWERED)))
-            )
-        ));
-
-    // Trova l'utente con il minor numero di ticket in carico
-    User assignedUser = assigneesLoad.entrySet().stream()
-        .min(Comparator.comparingLong(Map.Entry::getValue))
-        .map(Map.Entry::getKey)
-        .orElse(null); // Dovrebbe sempre trovare uno se potentialAssignees non è vuoto
+    // Trova l'utente con il minor numero di ticket in carico, tra i competenti (in proporzione al peso) se ce ne sono
+    List<AssigneeLoad> skilledLoads = assigneesLoad.stream()
+        .filter(load -> skilledAssignees.containsKey(load.getUser().getId()))
+        .toList();
+    AssigneeLoad leastLoaded = (skilledLoads.isEmpty() ? assigneesLoad : skilledLoads).stream()
+        .min(Comparator.comparingDouble(load -> (double) load.getLoad() / skilledAssignees.getOrDefault(load.getUser().getId(), 1)))
+        .orElse(null); // Dovrebbe sempre trovare uno se assigneesLoad non è vuoto
+    User assignedUser = leastLoaded != null ? leastLoaded.getUser() : null;
 
     if (assignedUser != null) {
         ticket.setAssignedTo(assignedUser);
@@ -1001,9 +1549,9 @@ private void assignTicketAutomatically(Ticket ticket) {
             ticket.setAssignedDate(new Date());
         }
         log.info("assignTicketAutomatically: Ticket {} assigned to {} (Role: {}, Load: {}).",
-                 ticket.getId(), assignedUser.getEmail(), assignedUser.getRole(), assigneesLoad.get(assignedUser));
+                 ticket.getId(), assignedUser.getEmail(), assignedUser.getRole(), leastLoaded.getLoad());
     } else {
-        // Questo blocco dovrebbe essere raggiunto solo se potentialAssignees era vuoto,
+        // Questo blocco dovrebbe essere raggiunto solo se assigneesLoad era vuoto,
         // ma è un fallback di sicurezza.
         log.error("assignTicketAutomatically: Fallback: Nessun utente idoneo trovato per l'assegnazione automatica per ticket ID: {}. Il ticket rimarrà non assegnato.", ticket.getId());
         ticket.setAssignedTo(null);
@@ -0,0 +1,26 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketStatus;
+
+import java.util.Date;
+
+/**
+ * Date e dimensioni di un ticket necessarie a popolare le metriche SLA all'avvio.
+ */
+public interface TicketSlaSample {
+
+    Date getCreatedDate();
+
+    Date getAssignedDate();
+
+    Date getSolveDate();
+
+    TicketStatus getStatus();
+
+    Long getCategoryId();
+
+    TicketPriority getPriority();
+
+    String getAssignedToId();
+}
@@ -0,0 +1,62 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketStatus;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Copia immutabile dei campi di un ticket in un certo istante.
+ * Viene trasportata da {@link TicketChangedEvent} così che i listener eseguiti dopo il commit
+ * non debbano accedere all'entità JPA (né alle sue relazioni lazy) fuori dalla sessione.
+ */
+@Getter
+@Builder
+public class TicketSnapshot {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final TicketStatus status;
+    private final TicketPriority priority;
+    private final String email;
+    private final String ownerId;
+    private final String ownerEmail;
+    private final String assignedToId;
+    private final Long categoryId;
+    private final String categoryName;
+    private final Long serviceId;
+    private final String serviceTitle;
+    private final Date createdDate;
+    private final Date assignedDate;
+    private final Date solveDate;
+
+    /**
+     * Crea lo snapshot di un ticket. Va invocato dentro la transazione che ha caricato il ticket.
+     * @param ticket Il ticket da copiare.
+     * @return Lo snapshot corrispondente.
+     */
+    public static TicketSnapshot of(Ticket ticket) {
+        return TicketSnapshot.builder()
+                .id(ticket.getId())
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .priority(ticket.getPriority())
+                .email(ticket.getEmail())
+                .ownerId(ticket.getOwner() != null ? ticket.getOwner().getId() : null)
+                .ownerEmail(ticket.getOwner() != null ? ticket.getOwner().getEmail() : null)
+                .assignedToId(ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null)
+                .categoryId(ticket.getCategory() != null ? ticket.getCategory().getId() : null)
+                .categoryName(ticket.getCategory() != null ? ticket.getCategory().getName() : null)
+                .serviceId(ticket.getService() != null ? ticket.getService().getId() : null)
+                .serviceTitle(ticket.getService() != null ? ticket.getService().getTitle() : null)
+                .createdDate(ticket.getCreatedDate())
+                .assignedDate(ticket.getAssignedDate())
+                .solveDate(ticket.getSolveDate())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.exception.ValidationException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordinamenti selezionabili dal client sulle liste paginate di ticket.
+ * Ogni chiave ha un indice composito (colonna, id) su {@link Ticket} e viene sempre completata dall'id nella stessa
+ * direzione, così l'ordine è stabile tra una pagina e l'altra e Postgres può leggere l'indice in ordine
+ * (in avanti o all'indietro) invece di ordinare in memoria l'insieme filtrato.
+ * Le date che possono mancare non finiscono in cima all'ordine decrescente (default di Postgres per i NULL):
+ * "lastModifiedDate" ordina per ultima attività, cioè la data di creazione finché il ticket non viene modificato,
+ * e "assignedDate" mette i ticket non assegnati in fondo in entrambe le direzioni.
+ */
+public class TicketSort {
+
+    // Proprietà calcolata: coalesce(lastModifiedDate, createdDate), vedi expression()
+    public static final String LAST_ACTIVITY_DATE = "lastActivityDate";
+
+    // Chiave esposta nelle API -> proprietà dell'entità ("priority" e "status" usano il rango numerico, non il nome
+    // dell'enum: lo stato segue il ciclo di vita DRAFT, OPEN, ANSWERED, SOLVED)
+    public static final Map<String, String> KEYS = Map.of(
+            "createdDate", "createdDate",
+            "lastModifiedDate", LAST_ACTIVITY_DATE,
+            "assignedDate", "assignedDate",
+            "priority", "priorityRank",
+            "status", "statusRank");
+
+    public static final Sort DEFAULT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
+    /**
+     * Applica al Pageable del client l'ordinamento consentito.
+     * È supportata una sola chiave (più l'id): un ordinamento su più colonne non sarebbe servito dagli indici.
+     * @param pageable Il Pageable ricevuto, con l'eventuale parametro sort (es. "priority,desc").
+     * @return Un Pageable con lo stesso numero e dimensione di pagina, ordinato per la chiave richiesta e per id,
+     *         oppure per data di creazione decrescente se il client non ha indicato un ordinamento.
+     * @throws ValidationException se la chiave non è tra quelle consentite o se ne sono indicate più di una.
+     */
+    public static Pageable resolve(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), resolve(pageable.getSort()));
+    }
+
+    public static Sort resolve(Sort requested) {
+        if (requested.isUnsorted()) {
+            return DEFAULT;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        requested.forEach(orders::add);
+        if (orders.size() > 1) {
+            throw new ValidationException("È possibile ordinare per una sola chiave tra: " + KEYS.keySet());
+        }
+        Sort.Order order = orders.get(0);
+        String property = KEYS.get(order.getProperty());
+        if (property == null) {
+            throw new ValidationException("Ordinamento non valido: " + order.getProperty() + ". Chiavi disponibili: " + KEYS.keySet());
+        }
+        Sort.Order keyOrder = new Sort.Order(order.getDirection(), property);
+        if (property.equals("assignedDate")) {
+            keyOrder = keyOrder.nullsLast();
+        }
+        return Sort.by(keyOrder, new Sort.Order(order.getDirection(), "id"));
+    }
+
+    /**
+     * Espressione su cui ordinare una proprietà di un Sort risolto da questa classe.
+     */
+    public static Expression<?> expression(String property, Root<Ticket> root, CriteriaBuilder builder) {
+        if (property.equals(LAST_ACTIVITY_DATE)) {
+            return builder.coalesce(root.get("lastModifiedDate"), root.get("createdDate"));
+        }
+        return root.get(property);
+    }
+}
@@ -1,13 +1,19 @@
 package com.sincon.ticketing_app.ticket;
 
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
-import com.sincon.ticketing_app.category.Category;
 import com.sincon.ticketing_app.enums.TicketPriority;
 import com.sincon.ticketing_app.enums.TicketStatus;
-import com.sincon.ticketing_app.supportservice.SupportService;
 
-import jakarta.persistence.criteria.Join;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class TicketSpecifications {
 
     // 1. Specifica per filtrare per ID del proprietario (owner)
@@ -40,20 +46,14 @@ public class TicketSpecifications {
             criteriaBuilder.equal(root.get("assignedTo").get("id"), assignedToId);
     }
 
-    // 6. Specifica per filtrare per ID proprietario O email del ticket
+    // 6. Specifica per filtrare per ID proprietario O email del ticket (UNION ALL, vedi byIdInUnionOf)
     public static Specification<Ticket> byOwnerIdOrTicketEmail(String ownerId, String ticketEmail) {
-        return (root, query, builder) -> builder.or(
-            byOwnerId(ownerId).toPredicate(root, query, builder),
-            byTicketEmail(ticketEmail).toPredicate(root, query, builder)
-        );
+        return byIdInUnionOf(byOwnerId(ownerId), byTicketEmail(ticketEmail));
     }
 
-    // 7. Specifica per filtrare per ID assegnato a O ID proprietario
+    // 7. Specifica per filtrare per ID assegnato a O ID proprietario (UNION ALL, vedi byIdInUnionOf)
     public static Specification<Ticket> byAssignedToIdOrOwnerId(String userId) {
-        return (root, query, builder) -> builder.or(
-            byAssignedToId(userId).toPredicate(root, query, builder),
-            byOwnerId(userId).toPredicate(root, query, builder)
-        );
+        return byIdInUnionOf(byAssignedToId(userId), byOwnerId(userId));
     }
 
     // 8. Specifica per filtrare per ID proprietario E status
@@ -64,6 +64,37 @@ public class TicketSpecifications {
         );
     }
 
+    // Specifica per i ticket visibili a un HELPER: assegnati a lui O sue bozze (UNION ALL, vedi byIdInUnionOf)
+    public static Specification<Ticket> byAssignedToIdOrOwnDraft(String userId) {
+        return byIdInUnionOf(byAssignedToId(userId), byOwnerIdAndStatus(userId, TicketStatus.DRAFT));
+    }
+
+    /**
+     * Specifica equivalente all'OR delle specifiche indicate, scritta come
+     * {@code id IN (SELECT id ... WHERE ramo1 UNION ALL SELECT id ... WHERE ramo2 ...)}.
+     * Un OR su colonne diverse non può essere servito da un singolo indice e spesso porta Postgres a una scansione
+     * sequenziale; ogni ramo della UNION ALL usa invece il proprio indice composito (vedi indici di {@link Ticket}).
+     * I duplicati tra i rami non contano, perché la UNION ALL è usata solo dentro IN.
+     * @param branches Le specifiche da mettere in OR (ognuna deve usare solo colonne di tickets).
+     * @return Una Specification sull'id del ticket.
+     */
+    @SafeVarargs
+    public static Specification<Ticket> byIdInUnionOf(Specification<Ticket>... branches) {
+        return (root, query, builder) -> {
+            HibernateCriteriaBuilder hibernateBuilder = (HibernateCriteriaBuilder) builder;
+            List<Subquery<Long>> subqueries = new ArrayList<>(branches.length);
+            for (Specification<Ticket> branch : branches) {
+                Subquery<Long> subquery = query.subquery(Long.class);
+                Root<Ticket> branchRoot = subquery.from(Ticket.class);
+                subquery.select(branchRoot.get("id")).where(branch.toPredicate(branchRoot, query, builder));
+                subqueries.add(subquery);
+            }
+            Subquery<Long> union = subqueries.size() == 1 ? subqueries.get(0)
+                    : hibernateBuilder.unionAll(subqueries.get(0), subqueries.subList(1, subqueries.size()).toArray(Subquery<?>[]::new));
+            return root.get("id").in(union);
+        };
+    }
+
     // --- NUOVI METODI DI SPECIFICA ---
 
     // Specifica per filtrare per priorità del ticket
@@ -72,28 +103,131 @@ public class TicketSpecifications {
             criteriaBuilder.equal(root.get("priority"), priority);
     }
 
+    // Specifica per filtrare su un insieme di ID (es. risultati dell'indice di ricerca in memoria)
+    public static Specification<Ticket> byIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) ->
+            ids.isEmpty() ? criteriaBuilder.disjunction() : root.get("id").in(ids);
+    }
+
+    // --- SPECIFICHE PER LA PAGINAZIONE KEYSET (createdDate DESC, id DESC) ---
+
+    /**
+     * Ticket che seguono il cursore nell'ordinamento (createdDate DESC, id DESC), cioè più vecchi.
+     * Il limite superiore ridondante su createdDate permette a Postgres di usare l'indice come range scan.
+     * @param cursor Posizione dell'ultimo ticket della pagina corrente.
+     * @return Una Specification keyset.
+     */
+    public static Specification<Ticket> afterCursor(TicketCursor cursor) {
+        return (root, query, builder) -> builder.and(
+            builder.lessThanOrEqualTo(root.get("createdDate"), cursor.getCreatedDate()),
+            builder.or(
+                builder.lessThan(root.get("createdDate"), cursor.getCreatedDate()),
+                builder.lessThan(root.get("id"), cursor.getId())
+            )
+        );
+    }
+
+    /**
+     * Ticket che precedono il cursore nell'ordinamento (createdDate DESC, id DESC), cioè più recenti.
+     * @param cursor Posizione del primo ticket della pagina corrente.
+     * @return Una Specification keyset.
+     */
+    public static Specification<Ticket> beforeCursor(TicketCursor cursor) {
+        return (root, query, builder) -> builder.and(
+            builder.greaterThanOrEqualTo(root.get("createdDate"), cursor.getCreatedDate()),
+            builder.or(
+                builder.greaterThan(root.get("createdDate"), cursor.getCreatedDate()),
+                builder.greaterThan(root.get("id"), cursor.getId())
+            )
+        );
+    }
+
+    // --- SPECIFICHE PER LA RICERCA FULL-TEXT (tsvector + indice GIN) ---
+
     /**
-     * Specifica per cercare un termine in titolo, descrizione, nome categoria o nome servizio di supporto.
-     * Utilizza JOIN per accedere alle proprietà delle entità correlate.
-     * @param searchTerm Il termine da cercare (case-insensitive).
-     * @return Una Specification che combina le condizioni OR.
+     * Specifica per cercare uno o più termini in titolo, descrizione, nome categoria o nome servizio di supporto.
+     * Interroga la colonna search_vector (mantenuta da trigger, vedi DatabaseSchemaInitializer) servita dall'indice GIN,
+     * quindi non richiede join né scansioni sequenziali. Ogni termine è cercato anche come prefisso.
+     * @param searchTerm Il testo inserito dall'utente.
+     * @return Una Specification che richiede la presenza di tutti i termini.
      */
-    public static Specification<Ticket> byKeywordInTicketDetails(String searchTerm) {
+    public static Specification<Ticket> byFullTextSearch(String searchTerm) {
+        String tsQuery = toPrefixTsQuery(searchTerm);
         return (root, query, builder) -> {
-            String likePattern = "%" + searchTerm.toLowerCase() + "%";
-
-            // Join per Category e SupportService
-            // Assicurati che le relazioni siano definite nell'entità Ticket
-            // Esempio: @ManyToOne private Category category; @ManyToOne private SupportService service;
-            Join<Ticket, Category> categoryJoin = root.join("category");
-            Join<Ticket, SupportService> serviceJoin = root.join("service");
-
-            return builder.or(
-                builder.like(builder.lower(root.get("title")), likePattern),
-                builder.like(builder.lower(root.get("description")), likePattern),
-                builder.like(builder.lower(categoryJoin.get("name")), likePattern), // Cerca nel nome della categoria
-                builder.like(builder.lower(serviceJoin.get("title")), likePattern) // Cerca nel titolo del servizio
-            );
+            if (tsQuery.isEmpty()) {
+                return builder.disjunction(); // Nessun termine ricercabile: nessun risultato
+            }
+            return builder.isTrue(builder.function("fts_match", Boolean.class,
+                    root.get("id"), builder.literal(tsQuery)));
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Ordina i risultati per rilevanza full-text (a parità di rilevanza, dal più recente).
+     * Non aggiunge condizioni: va combinata con {@link #byFullTextSearch(String)} e usata con un Pageable non ordinato,
+     * altrimenti l'ordinamento del Pageable sostituisce questo.
+     * @param searchTerm Il testo inserito dall'utente.
+     * @return Una Specification che imposta solo l'ORDER BY.
+     */
+    public static Specification<Ticket> orderByFullTextRank(String searchTerm) {
+        String tsQuery = toPrefixTsQuery(searchTerm);
+        return (root, query, builder) -> {
+            // La query di COUNT non deve essere ordinata
+            if (!tsQuery.isEmpty() && !Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                    builder.desc(builder.function("fts_rank", Double.class, root.get("id"), builder.literal(tsQuery))),
+                    builder.desc(root.get("createdDate")),
+                    builder.desc(root.get("id"))
+                );
+            }
+            return null;
+        };
+    }
+
+    // --- SPECIFICHE PER LA RICERCA FUZZY (pg_trgm + indice GIN) ---
+
+    /**
+     * Specifica per cercare un testo tollerando errori di battitura: un ticket corrisponde se una parte
+     * di search_text ha una similarità a trigrammi con il testo cercato almeno pari alla soglia
+     * pg_trgm.word_similarity_threshold (vedi application.search.fuzzy.similarity-threshold).
+     * L'operatore usato (<%) è servito dall'indice GIN gin_trgm_ops.
+     * @param searchTerm Il testo inserito dall'utente.
+     * @return Una Specification di similarità.
+     */
+    public static Specification<Ticket> byFuzzySearch(String searchTerm) {
+        String term = searchTerm.toLowerCase();
+        return (root, query, builder) -> builder.isTrue(builder.function("trgm_word_match", Boolean.class,
+                root.get("id"), builder.literal(term)));
+    }
+
+    /**
+     * Ordina i risultati per similarità decrescente con il testo cercato (a parità, dal più recente).
+     * Come {@link #orderByFullTextRank(String)} va usata con un Pageable non ordinato.
+     * @param searchTerm Il testo inserito dall'utente.
+     * @return Una Specification che imposta solo l'ORDER BY.
+     */
+    public static Specification<Ticket> orderByFuzzySimilarity(String searchTerm) {
+        String term = searchTerm.toLowerCase();
+        return (root, query, builder) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                    builder.desc(builder.function("trgm_word_similarity", Double.class, root.get("id"), builder.literal(term))),
+                    builder.desc(root.get("createdDate")),
+                    builder.desc(root.get("id"))
+                );
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Converte il testo libero in una tsquery con corrispondenza per prefisso (es. "stamp rott" -> "stamp:* & rott:*").
+     * Vengono mantenuti solo lettere e cifre, così l'input dell'utente non può alterare la sintassi della tsquery.
+     */
+    private static String toPrefixTsQuery(String searchTerm) {
+        return Arrays.stream(searchTerm.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isBlank())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,61 @@
+package com.sincon.ticketing_app.ticket;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.TicketVisibilityScope;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Utente che legge i ticket, con le regole di visibilità del suo ruolo (le stesse di TicketService.getTickets).
+ * Si ottiene da {@link TicketService#resolveViewer} e non dipende dall'Authentication, per cui può essere conservato
+ * e usato fuori dalla richiesta (es. per filtrare le notifiche inviate dopo il commit di una modifica).
+ */
+@Getter
+@RequiredArgsConstructor
+public class TicketViewer {
+
+    private final String userId;
+    private final String email;
+    private final TicketVisibilityScope scope;
+
+    /**
+     * ADMIN/PM vedono tutti i ticket, HELPER quelli assegnati e le proprie bozze,
+     * USER quelli creati o associati alla propria email.
+     */
+    public boolean canView(String ownerId, String assignedToId, String ticketEmail, TicketStatus status) {
+        boolean isOwner = userId.equals(ownerId);
+        return switch (scope) {
+            case ALL -> true;
+            case ASSIGNED_OR_OWN_DRAFT -> userId.equals(assignedToId) || (isOwner && status == TicketStatus.DRAFT);
+            case OWNED_OR_EMAIL -> isOwner || (ticketEmail != null && ticketEmail.equals(email));
+            case NONE -> false;
+        };
+    }
+
+    public boolean canView(TicketSnapshot ticket) {
+        return ticket != null && canView(ticket.getOwnerId(), ticket.getAssignedToId(), ticket.getEmail(), ticket.getStatus());
+    }
+
+    /**
+     * Contributo di un ticket ai conteggi della dashboard di questo utente (come TicketService.getDashboardCounts):
+     * il totale conta tutti i ticket visibili; i conteggi per stato, per un HELPER, solo quelli assegnati;
+     * le bozze, tranne che per ADMIN/PM, solo quelle di cui l'utente è owner.
+     * @param ticket Lo stato del ticket (null se non esiste).
+     * @return Conteggi a 0 o 1.
+     */
+    public DashboardCountsDTO dashboardContribution(TicketSnapshot ticket) {
+        DashboardCountsDTO counts = new DashboardCountsDTO();
+        if (!canView(ticket) || ticket.getStatus() == null) {
+            return counts;
+        }
+        counts.setTotalTickets(1);
+        boolean countsStatus = scope != TicketVisibilityScope.ASSIGNED_OR_OWN_DRAFT || userId.equals(ticket.getAssignedToId());
+        switch (ticket.getStatus()) {
+            case OPEN -> counts.setOpenTickets(countsStatus ? 1 : 0);
+            case ANSWERED -> counts.setAnsweredTickets(countsStatus ? 1 : 0);
+            case SOLVED -> counts.setSolvedTickets(countsStatus ? 1 : 0);
+            case DRAFT -> counts.setDraftTickets(scope == TicketVisibilityScope.ALL || userId.equals(ticket.getOwnerId()) ? 1 : 0);
+        }
+        return counts;
+    }
+}
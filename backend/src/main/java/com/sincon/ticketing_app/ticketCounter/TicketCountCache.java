@@ -0,0 +1,244 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.ticket.DashboardCountsDTO;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketCountRow;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache in memoria dei conteggi dei ticket per stato: globali, per assegnatario e per owner (opzionale,
+ * "application.tickets.count-cache.enabled").
+ * Ogni chiave ha un array di LongAdder indicizzato per {@link TicketStatus#ordinal()}, così gli aggiornamenti
+ * concorrenti non si contendono un lock. Popolata all'avvio con una sola aggregazione, aggiornata dopo il commit di ogni
+ * modifica e riallineata periodicamente al DB (che corregge anche le modifiche fatte da altre istanze).
+ * Serve la dashboard di ADMIN/PM e HELPER senza interrogare il DB. Con più istanze le modifiche delle altre arrivano
+ * solo al riallineamento, per cui va abilitata solo su un'unica istanza: altrimenti TicketService legge i contatori
+ * esatti di TicketCounterService.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketCountCache {
+
+    private static final int STATUSES = TicketStatus.values().length;
+
+    private final TicketRepository ticketRepository;
+
+    @Value("${application.tickets.count-cache.enabled:false}")
+    private boolean enabled;
+
+    private volatile CountState state = new CountState();
+    private volatile boolean ready;
+    private volatile Date lastResync;
+    private volatile long lastDrift;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Conteggi della dashboard per ADMIN/PM: tutti i ticket.
+     */
+    public DashboardCountsDTO getGlobalCounts() {
+        LongAdder[] global = state.global;
+        long total = 0;
+        for (LongAdder count : global) {
+            total += count.sum();
+        }
+        return new DashboardCountsDTO(total, get(global, TicketStatus.OPEN), get(global, TicketStatus.ANSWERED),
+                get(global, TicketStatus.SOLVED), get(global, TicketStatus.DRAFT));
+    }
+
+    /**
+     * Conteggi della dashboard per un HELPER: ticket assegnati più le proprie bozze (come TicketCounterService).
+     */
+    public DashboardCountsDTO getHelperCounts(String userId) {
+        CountState current = state;
+        LongAdder[] assigned = current.byAssignee.get(userId);
+        long drafts = get(current.byOwner.get(userId), TicketStatus.DRAFT);
+        // Le proprie bozze assegnate a se stessi sono già contate tra gli assegnati
+        long total = drafts - get(current.byOwnerAssignee.get(userId), TicketStatus.DRAFT);
+        for (TicketStatus status : TicketStatus.values()) {
+            total += get(assigned, status);
+        }
+        return new DashboardCountsDTO(total, get(assigned, TicketStatus.OPEN), get(assigned, TicketStatus.ANSWERED),
+                get(assigned, TicketStatus.SOLVED), drafts);
+    }
+
+    private static long get(LongAdder[] counts, TicketStatus status) {
+        return counts == null ? 0 : counts[status.ordinal()].sum();
+    }
+
+    /**
+     * Aggiorna i conteggi dopo il commit di una creazione, modifica o cancellazione.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        CountState current = state;
+        current.add(event.getBefore(), -1);
+        current.add(event.getAfter(), 1);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncOnStartup() {
+        if (enabled) {
+            resync();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.tickets.count-cache.resync-interval-ms:300000}",
+               initialDelayString = "${application.tickets.count-cache.resync-interval-ms:300000}")
+    public void resyncScheduled() {
+        if (enabled) {
+            resync();
+        }
+    }
+
+    /**
+     * Ricarica i conteggi dal DB e sostituisce la cache.
+     * Le modifiche committate mentre la query è in corso possono risultare contate due volte o perse fino al
+     * riallineamento successivo: per questo il numero di conteggi non allineati viene solo registrato.
+     *
+     * @return Il numero di conteggi (chiave, stato) che differivano dal DB.
+     */
+    public synchronized long resync() {
+        long start = System.currentTimeMillis();
+        CountState fresh = new CountState();
+        for (TicketCountRow row : ticketRepository.countByAssigneeOwnerAndStatus()) {
+            fresh.add(row.getAssignedToId(), row.getOwnerId(), row.getStatus(), row.getTicketCount());
+        }
+        long drift = ready ? state.diff(fresh) : 0;
+        state = fresh;
+        ready = true;
+        lastResync = new Date();
+        lastDrift = drift;
+        if (drift > 0) {
+            log.warn("TicketCountCache: Resynced in {} ms, {} counts were out of sync", System.currentTimeMillis() - start, drift);
+        } else {
+            log.debug("TicketCountCache: Resynced in {} ms", System.currentTimeMillis() - start);
+        }
+        return drift;
+    }
+
+    /**
+     * Stato della cache per l'endpoint actuator: conteggi globali e numero di chiavi.
+     */
+    public Map<String, Object> describe() {
+        CountState current = state;
+        Map<TicketStatus, Long> global = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            global.put(status, get(current.global, status));
+        }
+        return Map.of(
+                "enabled", enabled,
+                "ready", ready,
+                "lastResync", lastResync != null ? lastResync : "never",
+                "lastDrift", lastDrift,
+                "global", global,
+                "assignees", current.byAssignee.size(),
+                "owners", current.byOwner.size());
+    }
+
+    /**
+     * Conteggi per stato di un utente come assegnatario e come owner, per l'endpoint actuator.
+     */
+    public Map<String, Object> describe(String userId) {
+        CountState current = state;
+        Map<TicketStatus, Long> assigned = new EnumMap<>(TicketStatus.class);
+        Map<TicketStatus, Long> owned = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            assigned.put(status, get(current.byAssignee.get(userId), status));
+            owned.put(status, get(current.byOwner.get(userId), status));
+        }
+        return Map.of("userId", userId, "assigned", assigned, "owned", owned);
+    }
+
+    private static class CountState {
+
+        private final LongAdder[] global = newCounts();
+        private final ConcurrentHashMap<String, LongAdder[]> byAssignee = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LongAdder[]> byOwner = new ConcurrentHashMap<>();
+        // Ticket assegnati al proprio owner: l'intersezione tra i due insiemi precedenti
+        private final ConcurrentHashMap<String, LongAdder[]> byOwnerAssignee = new ConcurrentHashMap<>();
+
+        void add(TicketSnapshot ticket, long delta) {
+            if (ticket != null && ticket.getStatus() != null) {
+                add(ticket.getAssignedToId(), ticket.getOwnerId(), ticket.getStatus(), delta);
+            }
+        }
+
+        void add(String assignedToId, String ownerId, TicketStatus status, long delta) {
+            int index = status.ordinal();
+            global[index].add(delta);
+            if (assignedToId != null) {
+                byAssignee.computeIfAbsent(assignedToId, id -> newCounts())[index].add(delta);
+                if (assignedToId.equals(ownerId)) {
+                    byOwnerAssignee.computeIfAbsent(ownerId, id -> newCounts())[index].add(delta);
+                }
+            }
+            if (ownerId != null) {
+                byOwner.computeIfAbsent(ownerId, id -> newCounts())[index].add(delta);
+            }
+        }
+
+        long diff(CountState other) {
+            long drift = differentCounts(global, other.global);
+            drift += diff(byAssignee, other.byAssignee);
+            drift += diff(byOwner, other.byOwner);
+            drift += diff(byOwnerAssignee, other.byOwnerAssignee);
+            return drift;
+        }
+
+        private static long diff(Map<String, LongAdder[]> mine, Map<String, LongAdder[]> other) {
+            Set<String> keys = new HashSet<>(mine.keySet());
+            keys.addAll(other.keySet());
+            long drift = 0;
+            for (String key : keys) {
+                drift += differentCounts(mine.get(key), other.get(key));
+            }
+            return drift;
+        }
+
+        private static long differentCounts(LongAdder[] mine, LongAdder[] other) {
+            long drift = 0;
+            for (TicketStatus status : TicketStatus.values()) {
+                if (get(mine, status) != get(other, status)) {
+                    drift++;
+                }
+            }
+            return drift;
+        }
+
+        private static LongAdder[] newCounts() {
+            LongAdder[] counts = new LongAdder[STATUSES];
+            for (int i = 0; i < STATUSES; i++) {
+                counts[i] = new LongAdder();
+            }
+            return counts;
+        }
+    }
+}
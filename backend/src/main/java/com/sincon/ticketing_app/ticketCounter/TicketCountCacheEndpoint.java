@@ -0,0 +1,38 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint actuator "ticketcounts" per ispezionare la cache dei conteggi in memoria ({@link TicketCountCache}):
+ * GET /actuator/ticketcounts, GET /actuator/ticketcounts/{userId}, POST /actuator/ticketcounts per forzare un riallineamento.
+ */
+@Component
+@Endpoint(id = "ticketcounts")
+@RequiredArgsConstructor
+public class TicketCountCacheEndpoint {
+
+    private final TicketCountCache ticketCountCache;
+
+    @ReadOperation
+    public Map<String, Object> counts() {
+        return ticketCountCache.describe();
+    }
+
+    @ReadOperation
+    public Map<String, Object> userCounts(@Selector String userId) {
+        return ticketCountCache.describe(userId);
+    }
+
+    @WriteOperation
+    public Map<String, Object> resync() {
+        long drift = ticketCountCache.resync();
+        return Map.of("drift", drift, "cache", ticketCountCache.describe());
+    }
+}
@@ -0,0 +1,42 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import com.sincon.ticketing_app.enums.TicketCounterScope;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Numero di ticket in un dato stato per un ambito (globale, owner, assegnatario, email...).
+ * Le righe sono aggiornate da {@link TicketCounterService} nella stessa transazione di ogni modifica dei ticket,
+ * così la dashboard legge poche righe invece di aggregare la tabella tickets.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@IdClass(TicketCounterId.class)
+@Table(name = "ticket_counters", indexes = {
+    // La dashboard legge i contatori per scopeId (utente, email...) senza conoscere a priori gli stati presenti
+    @Index(name = "idx_ticket_counters_scope_id", columnList = "scope_id")
+})
+public class TicketCounter {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", length = 20)
+    private TicketCounterScope scopeType;
+
+    @Id
+    @Column(name = "scope_id")
+    private String scopeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private TicketStatus status;
+
+    @Column(name = "ticket_count", nullable = false)
+    private long ticketCount;
+}
@@ -0,0 +1,40 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/ticket-counters")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Ticket Counters", description = "Manutenzione dei contatori di ticket usati dalla dashboard")
+public class TicketCounterController {
+
+    private final TicketCounterService ticketCounterService;
+
+    /**
+     * Ricalcola i contatori dei ticket e riporta quelli non allineati (solo ADMIN).
+     *
+     * @return Il resoconto della riconciliazione.
+     */
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Riconcilia i contatori dei ticket",
+               description = "Ricalcola i contatori della dashboard dalla tabella dei ticket e restituisce le differenze trovate.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatori riconciliati con successo."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<TicketCounterReconcileReportDTO> reconcile() {
+        log.info("Received request to reconcile ticket counters.");
+        return ResponseEntity.ok(ticketCounterService.reconcile());
+    }
+}
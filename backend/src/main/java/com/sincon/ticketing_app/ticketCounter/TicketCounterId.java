@@ -0,0 +1,18 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import com.sincon.ticketing_app.enums.TicketCounterScope;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class TicketCounterId implements Serializable {
+    private TicketCounterScope scopeType;
+    private String scopeId;
+    private TicketStatus status;
+}
@@ -0,0 +1,32 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketCounterReconcileReportDTO {
+    private Date reconciledAt;
+    private long durationMs;
+    private long counters;      // Righe di contatore dopo la riconciliazione
+    private long driftCount;    // Contatori che non corrispondevano al valore ricalcolato
+    private List<Drift> drifts; // Dettaglio dei primi contatori non allineati
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Drift {
+        private String scopeType;
+        private String scopeId;
+        private String status;
+        private long expected;
+        private long actual;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketCounterRepository extends JpaRepository<TicketCounter, TicketCounterId> {
+
+    // Valori dei contatori ricalcolati dalla tabella tickets, uno per (ambito, scopeId, stato).
+    // Deve restare allineata a TicketCounterService.scopesOf
+    String EXPECTED_COUNTERS_SQL = """
+            SELECT 'GLOBAL' AS scopeType, '*' AS scopeId, status, count(*) AS ticketCount
+                FROM tickets WHERE status IS NOT NULL GROUP BY status
+            UNION ALL
+            SELECT 'OWNER', user_id, status, count(*)
+                FROM tickets WHERE status IS NOT NULL GROUP BY user_id, status
+            UNION ALL
+            SELECT 'ASSIGNEE', assigned_to, status, count(*)
+                FROM tickets WHERE status IS NOT NULL AND assigned_to IS NOT NULL GROUP BY assigned_to, status
+            UNION ALL
+            SELECT 'EMAIL', email, status, count(*)
+                FROM tickets WHERE status IS NOT NULL AND email IS NOT NULL GROUP BY email, status
+            UNION ALL
+            SELECT 'OWNER_EMAIL', user_id || '|' || email, status, count(*)
+                FROM tickets WHERE status IS NOT NULL AND email IS NOT NULL GROUP BY user_id, email, status
+            UNION ALL
+            SELECT 'OWNER_ASSIGNEE', user_id, status, count(*)
+                FROM tickets WHERE status IS NOT NULL AND assigned_to = user_id GROUP BY user_id, status
+            """;
+
+    List<TicketCounter> findByScopeIdIn(Collection<String> scopeIds);
+
+    /**
+     * Somma delta al contatore, creandolo se non esiste.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ticket_counters (scope_type, scope_id, status, ticket_count) " +
+            "VALUES (:scopeType, :scopeId, :status, :delta) " +
+            "ON CONFLICT (scope_type, scope_id, status) " +
+            "DO UPDATE SET ticket_count = ticket_counters.ticket_count + EXCLUDED.ticket_count", nativeQuery = true)
+    void increment(@Param("scopeType") String scopeType, @Param("scopeId") String scopeId,
+                   @Param("status") String status, @Param("delta") long delta);
+
+    // Blocca le modifiche ai contatori (gli upsert delle transazioni concorrenti attendono) fino alla fine della transazione
+    @Modifying
+    @Query(value = "LOCK TABLE ticket_counters IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconciliation();
+
+    @Query(value = EXPECTED_COUNTERS_SQL, nativeQuery = true)
+    List<TicketCounterView> computeExpectedCounters();
+
+    @Modifying
+    @Query(value = "DELETE FROM ticket_counters", nativeQuery = true)
+    void deleteAllCounters();
+
+    @Modifying
+    @Query(value = "INSERT INTO ticket_counters (scope_type, scope_id, status, ticket_count) " + EXPECTED_COUNTERS_SQL,
+            nativeQuery = true)
+    int insertExpectedCounters();
+}
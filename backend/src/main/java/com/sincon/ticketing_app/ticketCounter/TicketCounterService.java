@@ -0,0 +1,232 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+import com.sincon.ticketing_app.enums.TicketCounterScope;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.ticket.DashboardCountsDTO;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Contatori di ticket per (ambito, stato), mantenuti in modo incrementale nella stessa transazione di ogni modifica
+ * dei ticket: la dashboard legge poche righe di ticket_counters invece di aggregare la tabella tickets.
+ * Una riconciliazione (all'avvio, pianificata e su richiesta dell'admin) ricalcola i contatori da tickets
+ * e segnala le differenze, ad es. dopo modifiche fatte fuori da TicketService.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketCounterService {
+
+    public static final String GLOBAL_SCOPE_ID = "*";
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    // Ordine fisso di aggiornamento delle righe (vedi TicketChangedEvent)
+    private static final Comparator<TicketCounterId> UPDATE_ORDER = Comparator
+            .comparing(TicketCounterId::getScopeType)
+            .thenComparing(TicketCounterId::getScopeId)
+            .thenComparing(TicketCounterId::getStatus);
+
+    private final TicketCounterRepository counterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Finché la prima riconciliazione non è completata i contatori potrebbero non esistere ancora
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Aggiorna i contatori per una creazione, modifica o cancellazione di un ticket, nella transazione di TicketService.
+     */
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        Map<TicketCounterId, Long> deltas = new TreeMap<>(UPDATE_ORDER);
+        scopesOf(event.getBefore()).forEach(id -> deltas.merge(id, -1L, Long::sum));
+        scopesOf(event.getAfter()).forEach(id -> deltas.merge(id, 1L, Long::sum));
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                counterRepository.increment(id.getScopeType().name(), id.getScopeId(), id.getStatus().name(), delta);
+            }
+        });
+    }
+
+    /**
+     * Ambiti a cui un ticket contribuisce. Deve restare allineato a TicketCounterRepository.EXPECTED_COUNTERS_SQL.
+     */
+    private static List<TicketCounterId> scopesOf(TicketSnapshot ticket) {
+        List<TicketCounterId> scopes = new ArrayList<>();
+        if (ticket == null || ticket.getStatus() == null) {
+            return scopes;
+        }
+        TicketStatus status = ticket.getStatus();
+        scopes.add(new TicketCounterId(TicketCounterScope.GLOBAL, GLOBAL_SCOPE_ID, status));
+        scopes.add(new TicketCounterId(TicketCounterScope.OWNER, ticket.getOwnerId(), status));
+        if (ticket.getAssignedToId() != null) {
+            scopes.add(new TicketCounterId(TicketCounterScope.ASSIGNEE, ticket.getAssignedToId(), status));
+            if (ticket.getAssignedToId().equals(ticket.getOwnerId())) {
+                scopes.add(new TicketCounterId(TicketCounterScope.OWNER_ASSIGNEE, ticket.getOwnerId(), status));
+            }
+        }
+        if (ticket.getEmail() != null) {
+            scopes.add(new TicketCounterId(TicketCounterScope.EMAIL, ticket.getEmail(), status));
+            scopes.add(new TicketCounterId(TicketCounterScope.OWNER_EMAIL, ownerEmailScopeId(ticket.getOwnerId(), ticket.getEmail()), status));
+        }
+        return scopes;
+    }
+
+    private static String ownerEmailScopeId(String ownerId, String email) {
+        return ownerId + "|" + email;
+    }
+
+    /**
+     * Conteggi della dashboard per ADMIN/PM: tutti i ticket.
+     */
+    public DashboardCountsDTO getGlobalCounts() {
+        Counters counters = load(GLOBAL_SCOPE_ID);
+        return toDashboardCounts(status -> counters.get(TicketCounterScope.GLOBAL, GLOBAL_SCOPE_ID, status),
+                counters.get(TicketCounterScope.GLOBAL, GLOBAL_SCOPE_ID, TicketStatus.DRAFT), 0);
+    }
+
+    /**
+     * Conteggi della dashboard per un HELPER: ticket assegnati più le proprie bozze.
+     */
+    public DashboardCountsDTO getHelperCounts(String userId) {
+        Counters counters = load(userId);
+        long drafts = counters.get(TicketCounterScope.OWNER, userId, TicketStatus.DRAFT);
+        // Le proprie bozze assegnate a se stessi sono già contate tra gli assegnati
+        long overlap = counters.get(TicketCounterScope.OWNER_ASSIGNEE, userId, TicketStatus.DRAFT);
+        return toDashboardCounts(status -> counters.get(TicketCounterScope.ASSIGNEE, userId, status), drafts, drafts - overlap);
+    }
+
+    /**
+     * Conteggi della dashboard per uno USER: ticket creati o associati alla sua email (unione, senza doppioni).
+     */
+    public DashboardCountsDTO getUserCounts(String userId, String email) {
+        String ownerEmail = email != null ? ownerEmailScopeId(userId, email) : null;
+        Counters counters = email != null ? load(userId, email, ownerEmail) : load(userId);
+        return toDashboardCounts(status -> counters.get(TicketCounterScope.OWNER, userId, status)
+                        + counters.get(TicketCounterScope.EMAIL, email, status)
+                        - counters.get(TicketCounterScope.OWNER_EMAIL, ownerEmail, status),
+                counters.get(TicketCounterScope.OWNER, userId, TicketStatus.DRAFT), 0);
+    }
+
+    /**
+     * @param perStatus Conteggio per stato dell'insieme visibile (il totale è la somma su tutti gli stati).
+     * @param drafts Bozze da mostrare.
+     * @param extraTotal Ticket da aggiungere al totale, oltre alla somma per stato.
+     */
+    private DashboardCountsDTO toDashboardCounts(ToLongFunction<TicketStatus> perStatus, long drafts, long extraTotal) {
+        long total = extraTotal;
+        for (TicketStatus status : TicketStatus.values()) {
+            total += perStatus.applyAsLong(status);
+        }
+        return new DashboardCountsDTO(total, perStatus.applyAsLong(TicketStatus.OPEN), perStatus.applyAsLong(TicketStatus.ANSWERED),
+                perStatus.applyAsLong(TicketStatus.SOLVED), drafts);
+    }
+
+    private Counters load(String... scopeIds) {
+        Counters counters = new Counters();
+        counterRepository.findByScopeIdIn(List.of(scopeIds)).forEach(counter -> counters.values.put(
+                new TicketCounterId(counter.getScopeType(), counter.getScopeId(), counter.getStatus()), counter.getTicketCount()));
+        return counters;
+    }
+
+    private static class Counters {
+
+        private final Map<TicketCounterId, Long> values = new HashMap<>();
+
+        long get(TicketCounterScope scope, String scopeId, TicketStatus status) {
+            return scopeId == null ? 0 : values.getOrDefault(new TicketCounterId(scope, scopeId, status), 0L);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${application.tickets.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileScheduled() {
+        reconcile();
+    }
+
+    /**
+     * Ricalcola tutti i contatori dalla tabella tickets e li sostituisce, riportando quelli che non corrispondevano.
+     *
+     * @return Il resoconto delle differenze trovate.
+     */
+    public TicketCounterReconcileReportDTO reconcile() {
+        long start = System.currentTimeMillis();
+        TicketCounterReconcileReportDTO report = new TransactionTemplate(transactionManager).execute(status -> {
+            counterRepository.lockForReconciliation();
+            Map<TicketCounterId, Long> actual = new HashMap<>();
+            counterRepository.findAll().forEach(counter -> actual.put(
+                    new TicketCounterId(counter.getScopeType(), counter.getScopeId(), counter.getStatus()), counter.getTicketCount()));
+
+            List<TicketCounterReconcileReportDTO.Drift> drifts = new ArrayList<>();
+            long driftCount = 0;
+            for (TicketCounterView expected : counterRepository.computeExpectedCounters()) {
+                TicketCounterId id = new TicketCounterId(TicketCounterScope.valueOf(expected.getScopeType()),
+                        expected.getScopeId(), TicketStatus.valueOf(expected.getStatus()));
+                Long current = actual.remove(id);
+                if (current == null || current != expected.getTicketCount()) {
+                    driftCount++;
+                    addDrift(drifts, id, expected.getTicketCount(), current != null ? current : 0);
+                }
+            }
+            // Contatori rimasti senza ticket corrispondenti: devono valere 0
+            for (Map.Entry<TicketCounterId, Long> stale : actual.entrySet()) {
+                if (stale.getValue() != 0) {
+                    driftCount++;
+                    addDrift(drifts, stale.getKey(), 0, stale.getValue());
+                }
+            }
+
+            counterRepository.deleteAllCounters();
+            int counters = counterRepository.insertExpectedCounters();
+            return TicketCounterReconcileReportDTO.builder()
+                    .reconciledAt(new Date())
+                    .counters(counters)
+                    .driftCount(driftCount)
+                    .drifts(drifts)
+                    .build();
+        });
+        Objects.requireNonNull(report).setDurationMs(System.currentTimeMillis() - start);
+        ready = true;
+        if (report.getDriftCount() > 0) {
+            log.warn("TicketCounterService: Reconciled {} counters in {} ms, {} were out of sync",
+                    report.getCounters(), report.getDurationMs(), report.getDriftCount());
+        } else {
+            log.info("TicketCounterService: Reconciled {} counters in {} ms, no drift", report.getCounters(), report.getDurationMs());
+        }
+        return report;
+    }
+
+    private static void addDrift(List<TicketCounterReconcileReportDTO.Drift> drifts, TicketCounterId id, long expected, long actual) {
+        if (drifts.size() < MAX_REPORTED_DRIFTS) {
+            drifts.add(new TicketCounterReconcileReportDTO.Drift(id.getScopeType().name(), id.getScopeId(),
+                    id.getStatus().name(), expected, actual));
+        }
+    }
+}
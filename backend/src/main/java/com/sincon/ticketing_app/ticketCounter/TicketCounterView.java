@@ -0,0 +1,15 @@
+package com.sincon.ticketing_app.ticketCounter;
+
+/**
+ * Riga di contatore letta con query native (valori attesi ricalcolati da tickets).
+ */
+public interface TicketCounterView {
+
+    String getScopeType();
+
+    String getScopeId();
+
+    String getStatus();
+
+    long getTicketCount();
+}
@@ -0,0 +1,47 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Ticket creati, risolti e riaperti in un giorno per (categoria, servizio, priorità).
+ * Le dimensioni assenti sono salvate come 0 / "NONE" perché fanno parte della chiave primaria.
+ * Le righe sono aggiornate da {@link TicketRollupService} nella stessa transazione di ogni modifica dei ticket.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@IdClass(TicketDailyRollupId.class)
+@Table(name = "ticket_daily_rollups")
+public class TicketDailyRollup {
+
+    @Id
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Id
+    @Column(name = "service_id")
+    private Long serviceId;
+
+    @Id
+    @Column(name = "priority", length = 20)
+    private String priority;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "solved_count", nullable = false)
+    private long solvedCount;
+
+    @Column(name = "reopened_count", nullable = false)
+    private long reopenedCount;
+}
@@ -0,0 +1,18 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class TicketDailyRollupId implements Serializable {
+    private LocalDate bucketDate;
+    private Long categoryId;
+    private Long serviceId;
+    private String priority;
+}
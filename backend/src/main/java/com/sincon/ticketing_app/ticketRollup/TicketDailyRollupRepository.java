@@ -0,0 +1,100 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TicketDailyRollupRepository extends JpaRepository<TicketDailyRollup, TicketDailyRollupId> {
+
+    /**
+     * Somma i delta al bucket, creandolo se non esiste.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ticket_daily_rollups " +
+            "(bucket_date, category_id, service_id, priority, created_count, solved_count, reopened_count) " +
+            "VALUES (:bucketDate, :categoryId, :serviceId, :priority, :created, :solved, :reopened) " +
+            "ON CONFLICT (bucket_date, category_id, service_id, priority) DO UPDATE SET " +
+            "created_count = ticket_daily_rollups.created_count + EXCLUDED.created_count, " +
+            "solved_count = ticket_daily_rollups.solved_count + EXCLUDED.solved_count, " +
+            "reopened_count = ticket_daily_rollups.reopened_count + EXCLUDED.reopened_count", nativeQuery = true)
+    void increment(@Param("bucketDate") LocalDate bucketDate, @Param("categoryId") long categoryId,
+                   @Param("serviceId") long serviceId, @Param("priority") String priority,
+                   @Param("created") long created, @Param("solved") long solved, @Param("reopened") long reopened);
+
+    /**
+     * Serie storica dei bucket tra from e to (inclusi), aggregata per periodo e, se richiesto, per dimensione.
+     * Legge solo la tabella dei rollup (una riga per giorno e combinazione di dimensioni presente).
+     */
+    @Query(value = """
+            SELECT CAST(date_trunc(:granularity, CAST(bucket_date AS timestamp)) AS date) AS period,
+                   CASE :groupBy
+                       WHEN 'CATEGORY' THEN CAST(NULLIF(category_id, 0) AS text)
+                       WHEN 'SUPPORT_SERVICE' THEN CAST(NULLIF(service_id, 0) AS text)
+                       WHEN 'PRIORITY' THEN NULLIF(priority, 'NONE')
+                   END AS groupKey,
+                   SUM(created_count) AS created, SUM(solved_count) AS solved, SUM(reopened_count) AS reopened
+            FROM ticket_daily_rollups
+            WHERE bucket_date BETWEEN :fromDate AND :toDate
+              AND (CAST(:categoryId AS bigint) IS NULL OR category_id = :categoryId)
+              AND (CAST(:serviceId AS bigint) IS NULL OR service_id = :serviceId)
+              AND (CAST(:priority AS text) IS NULL OR priority = :priority)
+            GROUP BY 1, 2
+            ORDER BY 1, 2
+            """, nativeQuery = true)
+    List<TicketRollupPointView> findSeries(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                           @Param("granularity") String granularity, @Param("groupBy") String groupBy,
+                                           @Param("categoryId") Long categoryId, @Param("serviceId") Long serviceId,
+                                           @Param("priority") String priority);
+
+    // --- RICALCOLO (BACKFILL) ---
+
+    // Blocca gli aggiornamenti incrementali concorrenti (attendono) fino alla fine della transazione di ricalcolo
+    @Modifying
+    @Query(value = "LOCK TABLE ticket_daily_rollups IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForBackfill();
+
+    @Modifying
+    @Query(value = "UPDATE ticket_daily_rollups SET created_count = 0, solved_count = 0 " +
+            "WHERE bucket_date BETWEEN :fromDate AND :toDate", nativeQuery = true)
+    void resetCreatedAndSolved(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // Creati: ticket non in bozza, per giorno di creazione (come TicketRollupService.addContributions)
+    @Modifying
+    @Query(value = """
+            INSERT INTO ticket_daily_rollups
+                (bucket_date, category_id, service_id, priority, created_count, solved_count, reopened_count)
+            SELECT CAST(created_date AS date), COALESCE(category_id, 0), COALESCE(service_id, 0), COALESCE(priority, 'NONE'),
+                   count(*), 0, 0
+            FROM tickets
+            WHERE status <> 'DRAFT' AND created_date >= :fromDate AND created_date < CAST(:toDate AS date) + 1
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (bucket_date, category_id, service_id, priority) DO UPDATE SET created_count = EXCLUDED.created_count
+            """, nativeQuery = true)
+    int backfillCreated(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // Risolti: ticket attualmente SOLVED, per giorno di risoluzione
+    @Modifying
+    @Query(value = """
+            INSERT INTO ticket_daily_rollups
+                (bucket_date, category_id, service_id, priority, created_count, solved_count, reopened_count)
+            SELECT CAST(solve_date AS date), COALESCE(category_id, 0), COALESCE(service_id, 0), COALESCE(priority, 'NONE'),
+                   0, count(*), 0
+            FROM tickets
+            WHERE status = 'SOLVED' AND solve_date >= :fromDate AND solve_date < CAST(:toDate AS date) + 1
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (bucket_date, category_id, service_id, priority) DO UPDATE SET solved_count = EXCLUDED.solved_count
+            """, nativeQuery = true)
+    int backfillSolved(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM ticket_daily_rollups WHERE bucket_date BETWEEN :fromDate AND :toDate " +
+            "AND created_count = 0 AND solved_count = 0 AND reopened_count = 0", nativeQuery = true)
+    void deleteEmptyBuckets(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT CAST(MIN(created_date) AS date) FROM tickets", nativeQuery = true)
+    LocalDate findFirstTicketDate();
+}
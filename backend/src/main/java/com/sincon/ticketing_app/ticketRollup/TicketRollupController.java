@@ -0,0 +1,80 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketRollupGranularity;
+import com.sincon.ticketing_app.enums.TicketRollupGroupBy;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/ticket-rollups")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Ticket Rollups", description = "Serie storiche dei ticket creati, risolti e riaperti")
+public class TicketRollupController {
+
+    private final TicketRollupService ticketRollupService;
+
+    /**
+     * Recupera la serie storica dei ticket creati, risolti e riaperti in un intervallo di date.
+     *
+     * @return Un punto per periodo (e gruppo), in ordine cronologico.
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('PM', 'ADMIN')")
+    @Operation(summary = "Recupera la serie storica dei ticket",
+               description = "Ticket creati, risolti e riaperti per giorno, settimana o mese, eventualmente suddivisi per " +
+                             "categoria, servizio o priorità. Letta dai bucket giornalieri precalcolati.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Serie storica recuperata con successo."),
+        @ApiResponse(responseCode = "400", description = "Intervallo di date non valido."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo PM e ADMIN).")
+    })
+    public ResponseEntity<List<TicketRollupPointDTO>> getSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Primo giorno (incluso)", example = "2025-01-01") LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Ultimo giorno (incluso)", example = "2025-03-31") LocalDate to,
+            @RequestParam(defaultValue = "DAY") @Parameter(description = "Ampiezza dei periodi") TicketRollupGranularity granularity,
+            @RequestParam(defaultValue = "NONE") @Parameter(description = "Suddivisione di ogni periodo") TicketRollupGroupBy groupBy,
+            @RequestParam(required = false) @Parameter(description = "Filtra per categoria") Long categoryId,
+            @RequestParam(required = false) @Parameter(description = "Filtra per servizio di supporto") Long supportServiceId,
+            @RequestParam(required = false) @Parameter(description = "Filtra per priorità") TicketPriority priority) {
+        log.info("Received request to get ticket rollups from {} to {}, granularity: {}, groupBy: {}", from, to, granularity, groupBy);
+        return ResponseEntity.ok(ticketRollupService.getSeries(from, to, granularity, groupBy, categoryId, supportServiceId, priority));
+    }
+
+    /**
+     * Ricalcola i bucket giornalieri in un intervallo di date (solo ADMIN).
+     *
+     * @return Il numero di bucket scritti.
+     */
+    @PostMapping("/backfill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Ricalcola le serie storiche dei ticket",
+               description = "Ricalcola creati e risolti dai ticket per l'intervallo indicato. Le riaperture sono contate " +
+                             "solo al momento in cui avvengono e non vengono ricalcolate.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bucket ricalcolati con successo."),
+        @ApiResponse(responseCode = "400", description = "Intervallo di date non valido."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato."),
+        @ApiResponse(responseCode = "403", description = "Non autorizzato (solo ADMIN).")
+    })
+    public ResponseEntity<Integer> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Primo giorno (incluso)", example = "2025-01-01") LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Ultimo giorno (incluso)", example = "2025-03-31") LocalDate to) {
+        log.info("Received request to backfill ticket rollups from {} to {}", from, to);
+        return ResponseEntity.ok(ticketRollupService.backfill(from, to));
+    }
+}
@@ -0,0 +1,18 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketRollupPointDTO {
+    private LocalDate period; // Primo giorno del periodo (giorno, settimana ISO o mese)
+    private String group;     // ID categoria/servizio o priorità secondo groupBy, null senza raggruppamento o se assente
+    private long created;
+    private long solved;
+    private long reopened;
+}
@@ -0,0 +1,19 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import java.time.LocalDate;
+
+/**
+ * Punto di una serie storica letto dalla query nativa di {@link TicketDailyRollupRepository#findSeries}.
+ */
+public interface TicketRollupPointView {
+
+    LocalDate getPeriod();
+
+    String getGroupKey();
+
+    long getCreated();
+
+    long getSolved();
+
+    long getReopened();
+}
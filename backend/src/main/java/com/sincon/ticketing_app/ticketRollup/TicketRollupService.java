@@ -0,0 +1,173 @@
+package com.sincon.ticketing_app.ticketRollup;
+
+import com.sincon.ticketing_app.enums.TicketPriority;
+import com.sincon.ticketing_app.enums.TicketRollupGranularity;
+import com.sincon.ticketing_app.enums.TicketRollupGroupBy;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.exception.ValidationException;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serie storiche dei ticket creati, risolti e riaperti, lette da bucket giornalieri (ticket_daily_rollups)
+ * invece che da scansioni di tickets. I bucket sono aggiornati in modo incrementale nella stessa transazione
+ * di ogni modifica; creati e risolti possono essere ricalcolati (backfill) da tickets.
+ *
+ * Un ticket conta come creato nel giorno di creazione se non è una bozza, e come risolto nel giorno di solveDate
+ * se è SOLVED: ogni modifica sposta quindi i conteggi in base allo stato attuale del ticket, esattamente come il backfill.
+ * Le riaperture (da SOLVED a un altro stato) sono invece eventi, contati nel giorno in cui avvengono solo da
+ * onTicketChanged: nessuna tabella ne conserva la storia, per cui il backfill non le ricalcola e le lascia invariate.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketRollupService {
+
+    private static final long NO_DIMENSION = 0L;
+    private static final String NO_PRIORITY = "NONE";
+    private static final long MAX_RANGE_DAYS = 3 * 366;
+
+    // Ordine fisso di aggiornamento dei bucket (vedi TicketChangedEvent)
+    private static final Comparator<TicketDailyRollupId> UPDATE_ORDER = Comparator
+            .comparing(TicketDailyRollupId::getBucketDate)
+            .thenComparing(TicketDailyRollupId::getCategoryId)
+            .thenComparing(TicketDailyRollupId::getServiceId)
+            .thenComparing(TicketDailyRollupId::getPriority);
+
+    private final TicketDailyRollupRepository rollupRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Aggiorna i bucket per una creazione, modifica o cancellazione di un ticket, nella transazione di TicketService.
+     */
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        Map<TicketDailyRollupId, long[]> deltas = new TreeMap<>(UPDATE_ORDER);
+        addContributions(deltas, event.getBefore(), -1);
+        addContributions(deltas, event.getAfter(), 1);
+        TicketSnapshot before = event.getBefore();
+        TicketSnapshot after = event.getAfter();
+        if (before != null && after != null && before.getStatus() == TicketStatus.SOLVED && after.getStatus() != TicketStatus.SOLVED) {
+            deltas.computeIfAbsent(bucketOf(LocalDate.now(), after), id -> new long[3])[2]++;
+        }
+        deltas.forEach((id, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0) {
+                rollupRepository.increment(id.getBucketDate(), id.getCategoryId(), id.getServiceId(), id.getPriority(),
+                        delta[0], delta[1], delta[2]);
+            }
+        });
+    }
+
+    /**
+     * Contributo di un ticket ai bucket (creati, risolti). Deve restare allineato alle query di backfill
+     * di TicketDailyRollupRepository.
+     */
+    private static void addContributions(Map<TicketDailyRollupId, long[]> deltas, TicketSnapshot ticket, long sign) {
+        if (ticket == null || ticket.getStatus() == null) {
+            return;
+        }
+        if (ticket.getStatus() != TicketStatus.DRAFT && ticket.getCreatedDate() != null) {
+            deltas.computeIfAbsent(bucketOf(toLocalDate(ticket.getCreatedDate()), ticket), id -> new long[3])[0] += sign;
+        }
+        if (ticket.getStatus() == TicketStatus.SOLVED && ticket.getSolveDate() != null) {
+            deltas.computeIfAbsent(bucketOf(toLocalDate(ticket.getSolveDate()), ticket), id -> new long[3])[1] += sign;
+        }
+    }
+
+    private static TicketDailyRollupId bucketOf(LocalDate day, TicketSnapshot ticket) {
+        return new TicketDailyRollupId(day,
+                ticket.getCategoryId() != null ? ticket.getCategoryId() : NO_DIMENSION,
+                ticket.getServiceId() != null ? ticket.getServiceId() : NO_DIMENSION,
+                ticket.getPriority() != null ? ticket.getPriority().name() : NO_PRIORITY);
+    }
+
+    // Stesso giorno calcolato da Postgres con CAST(... AS date): le date sono salvate nel fuso orario della JVM
+    private static LocalDate toLocalDate(Date date) {
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Restituisce la serie storica tra due date (incluse).
+     *
+     * @param from Primo giorno.
+     * @param to Ultimo giorno.
+     * @param granularity Ampiezza dei periodi.
+     * @param groupBy Dimensione per cui suddividere ogni periodo.
+     * @param categoryId Filtro per categoria (opzionale).
+     * @param serviceId Filtro per servizio (opzionale).
+     * @param priority Filtro per priorità (opzionale).
+     * @return Un punto per periodo (e gruppo), in ordine cronologico; i periodi senza ticket sono omessi.
+     * @throws ValidationException se l'intervallo non è valido o supera tre anni.
+     */
+    public List<TicketRollupPointDTO> getSeries(LocalDate from, LocalDate to, TicketRollupGranularity granularity,
+                                                TicketRollupGroupBy groupBy, Long categoryId, Long serviceId,
+                                                TicketPriority priority) {
+        validateRange(from, to);
+        return rollupRepository.findSeries(from, to, granularity.name().toLowerCase(), groupBy.name(), categoryId, serviceId,
+                        priority != null ? priority.name() : null).stream()
+                .map(point -> new TicketRollupPointDTO(point.getPeriod(), point.getGroupKey(),
+                        point.getCreated(), point.getSolved(), point.getReopened()))
+                .toList();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        LocalDate firstTicketDate = rollupRepository.findFirstTicketDate();
+        if (firstTicketDate != null) {
+            backfill(firstTicketDate, LocalDate.now());
+        }
+    }
+
+    /**
+     * Ricalcola creati e risolti nei bucket tra due date (incluse) da tickets; le riaperture restano invariate.
+     *
+     * @return Il numero di bucket scritti.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ValidationException("Intervallo di date non valido.");
+        }
+        long start = System.currentTimeMillis();
+        Integer buckets = new TransactionTemplate(transactionManager).execute(status -> {
+            rollupRepository.lockForBackfill();
+            rollupRepository.resetCreatedAndSolved(from, to);
+            int written = rollupRepository.backfillCreated(from, to)
+                    + rollupRepository.backfillSolved(from, to);
+            rollupRepository.deleteEmptyBuckets(from, to);
+            return written;
+        });
+        log.info("TicketRollupService: Backfilled rollups from {} to {} ({} bucket writes) in {} ms",
+                from, to, buckets, System.currentTimeMillis() - start);
+        return buckets != null ? buckets : 0;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ValidationException("Intervallo di date non valido.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ValidationException("L'intervallo richiesto non può superare tre anni.");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sincon.ticketing_app.ticketStream;
+
+import com.sincon.ticketing_app.ticket.TicketService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/ticket-stream")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Ticket Stream", description = "Notifiche push (Server-Sent Events) delle modifiche ai ticket")
+public class TicketStreamController {
+
+    private final TicketService ticketService;
+    private final TicketStreamService ticketStreamService;
+
+    /**
+     * Apre lo stream SSE delle modifiche ai ticket visibili all'utente.
+     *
+     * @param auth Dettagli dell'utente autenticato.
+     * @return Lo stream di eventi.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('USER', 'HELPER_JUNIOR', 'HELPER_SENIOR', 'PM', 'ADMIN')")
+    @Operation(summary = "Apre lo stream delle modifiche ai ticket",
+               description = "Evento \"counts\" con i conteggi della dashboard alla connessione, poi un evento \"ticket-changed\" " +
+                             "per ogni modifica confermata a un ticket visibile all'utente, con la variazione dei conteggi. " +
+                             "Sostituisce il polling di /tickets/dashboard/counts e delle liste.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream aperto."),
+        @ApiResponse(responseCode = "401", description = "Non autenticato.")
+    })
+    public SseEmitter stream(Authentication auth) {
+        log.info("Received request to open ticket stream");
+        // I conteggi vengono letti dopo la registrazione della connessione (vedi TicketStreamService.subscribe)
+        return ticketStreamService.subscribe(ticketService.resolveViewer(auth), () -> ticketService.getDashboardCounts(auth));
+    }
+}
@@ -0,0 +1,20 @@
+package com.sincon.ticketing_app.ticketStream;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.ticket.DashboardCountsDTO;
+import lombok.*;
+
+/**
+ * Evento "ticket-changed" inviato sullo stream SSE per ogni modifica confermata di un ticket visibile all'utente.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketStreamEventDTO {
+    private Long ticketId;
+    private TicketStatus status; // Stato dopo la modifica, null se removed
+    private boolean removed; // Ticket eliminato o non più visibile all'utente: va tolto dalle liste
+    private DashboardCountsDTO countsDelta; // Variazione dei conteggi della dashboard, null se invariati
+}
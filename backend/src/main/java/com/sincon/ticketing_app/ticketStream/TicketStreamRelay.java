@@ -0,0 +1,163 @@
+package com.sincon.ticketing_app.ticketStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Inoltra le modifiche ai ticket tra le istanze dell'applicazione, così le connessioni SSE di ogni istanza ricevono
+ * anche quelle confermate dalle altre (opzionale, "application.tickets.stream.relay-enabled").
+ * Ogni modifica viene pubblicata con NOTIFY nella transazione che la esegue, per cui Postgres la consegna solo dopo
+ * il commit; ogni istanza resta in LISTEN su una connessione dedicata e passa a {@link TicketStreamService} le
+ * modifiche delle altre. Il messaggio contiene solo i campi usati per visibilità e conteggi (vedi TicketViewer).
+ * Se la connessione in ascolto cade, le notifiche arrivate nel frattempo sono perse: alla riconnessione le connessioni
+ * SSE vengono chiuse, così i client si riconnettono e ricaricano i conteggi.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketStreamRelay {
+
+    private static final String CHANNEL = "ticket_changes";
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TicketStreamService ticketStreamService;
+
+    @Value("${application.tickets.stream.relay-enabled:true}")
+    private boolean enabled;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private volatile Thread listener;
+
+    /**
+     * Pubblica la modifica per le altre istanze. Listener sincrono: il NOTIFY fa parte della transazione della modifica
+     * e viene scartato se questa viene annullata.
+     */
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        RelayMessage message = new RelayMessage(instanceId, event.getTicketId(),
+                RelayedTicket.of(event.getBefore()), RelayedTicket.of(event.getAfter()));
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("TicketStreamRelay: Failed to serialize change of ticket " + event.getTicketId(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("ticket-stream-relay").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread current = listener;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    log.warn("TicketStreamRelay: Reconnected, closing stream connections that may have missed changes");
+                    ticketStreamService.closeAll();
+                }
+                log.info("TicketStreamRelay: Listening for ticket changes from other instances");
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("TicketStreamRelay: Lost the listening connection, retrying in {} ms", RETRY_DELAY_MS, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            RelayMessage message = objectMapper.readValue(payload, RelayMessage.class);
+            if (instanceId.equals(message.origin())) {
+                return; // Già notificata da TicketStreamService dopo il commit locale
+            }
+            ticketStreamService.notifySubscribers(new TicketChangedEvent(
+                    message.before() != null ? message.before().toSnapshot(message.ticketId()) : null,
+                    message.after() != null ? message.after().toSnapshot(message.ticketId()) : null));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("TicketStreamRelay: Ignoring invalid notification {}", payload, e);
+        }
+    }
+
+    record RelayMessage(String origin, Long ticketId, RelayedTicket before, RelayedTicket after) {
+    }
+
+    record RelayedTicket(String ownerId, String assignedToId, String email, TicketStatus status) {
+
+        static RelayedTicket of(TicketSnapshot ticket) {
+            return ticket != null
+                    ? new RelayedTicket(ticket.getOwnerId(), ticket.getAssignedToId(), ticket.getEmail(), ticket.getStatus())
+                    : null;
+        }
+
+        TicketSnapshot toSnapshot(Long ticketId) {
+            return TicketSnapshot.builder()
+                    .id(ticketId)
+                    .ownerId(ownerId)
+                    .assignedToId(assignedToId)
+                    .email(email)
+                    .status(status)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.sincon.ticketing_app.ticketStream;
+
+import com.sincon.ticketing_app.ticket.DashboardCountsDTO;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketViewer;
+import com.sincon.ticketing_app.user.UserChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Canale SSE che notifica ai client connessi le modifiche ai ticket, al posto del polling di dashboard e liste.
+ * Dopo il commit di ogni modifica, ogni connessione che vede il ticket (stesse regole di TicketService.getTickets, vedi
+ * {@link TicketViewer}) riceve l'ID del ticket e la variazione dei propri conteggi della dashboard.
+ * Le connessioni sono asincrone (nessun thread del server resta bloccato in attesa) e ognuna ha una coda limitata
+ * svuotata da un proprio virtual thread, così un client lento non rallenta né il commit né gli altri client:
+ * se la sua coda si riempie la connessione viene chiusa e il client, riconnettendosi, ricarica i conteggi.
+ * Le modifiche confermate dalle altre istanze arrivano tramite {@link TicketStreamRelay}. In più ogni connessione riceve
+ * periodicamente i conteggi completi ("application.tickets.stream.counts-refresh-interval-ms"), che correggono le
+ * variazioni perse o contate due volte.
+ */
+@Component
+@Slf4j
+public class TicketStreamService {
+
+    public static final String COUNTS_EVENT = "counts";
+    public static final String TICKET_CHANGED_EVENT = "ticket-changed";
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    @Value("${application.tickets.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${application.tickets.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Apre una connessione per l'utente. Il primo evento ("counts") contiene i conteggi completi della dashboard,
+     * i successivi ("ticket-changed") le variazioni.
+     * La connessione riceve le modifiche già prima che i conteggi vengano letti e le invia dopo di essi: una modifica
+     * confermata durante la lettura può risultare sia nei conteggi sia in una variazione, ma nessuna va persa.
+     * @param viewer L'utente con il suo ambito di visibilità.
+     * @param initialCounts Legge i conteggi correnti della dashboard dell'utente.
+     * @return L'emitter da restituire dal controller.
+     */
+    public SseEmitter subscribe(TicketViewer viewer, Supplier<DashboardCountsDTO> initialCounts) {
+        closeExcessConnections(viewer.getUserId());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(sequence.incrementAndGet(), viewer, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        try {
+            subscriber.counts = initialCounts;
+            subscriber.initialCounts = initialCounts.get();
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        subscriber.worker = Thread.ofVirtual().name("ticket-stream-" + subscriber.id).unstarted(subscriber);
+        subscriber.worker.start();
+        log.info("TicketStreamService: User {} connected ({} open connections)", viewer.getUserId(), subscribers.size());
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Accoda la modifica alle connessioni che vedevano o vedono il ticket. Eseguito dopo il commit, non blocca mai.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketChanged(TicketChangedEvent event) {
+        notifySubscribers(event);
+    }
+
+    // Usato anche da TicketStreamRelay per le modifiche confermate dalle altre istanze
+    void notifySubscribers(TicketChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            TicketViewer viewer = subscriber.viewer;
+            boolean visibleBefore = viewer.canView(event.getBefore());
+            boolean visibleAfter = viewer.canView(event.getAfter());
+            if (!visibleBefore && !visibleAfter) {
+                continue;
+            }
+            TicketStreamEventDTO payload = TicketStreamEventDTO.builder()
+                    .ticketId(event.getTicketId())
+                    .status(visibleAfter ? event.getAfter().getStatus() : null)
+                    .removed(!visibleAfter)
+                    .countsDelta(countsDelta(viewer.dashboardContribution(event.getBefore()),
+                            viewer.dashboardContribution(event.getAfter())))
+                    .build();
+            subscriber.offer(SseEmitter.event().name(TICKET_CHANGED_EVENT).data(payload));
+        }
+    }
+
+    /**
+     * L'ambito di visibilità di una connessione è fissato all'apertura: dopo un cambio di ruolo o l'eliminazione
+     * dell'utente le sue connessioni vengono chiuse, così il client si riconnette (o viene rifiutato) con il nuovo ruolo.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        subscribers.stream()
+                .filter(subscriber -> subscriber.viewer.getUserId().equals(event.getUserId()))
+                .forEach(subscriber -> {
+                    log.info("TicketStreamService: Closing connection {} of user {} after a role change or deletion", subscriber.id, event.getUserId());
+                    subscriber.complete();
+                });
+    }
+
+    /**
+     * Commento SSE periodico per non far chiudere dai proxy le connessioni inattive.
+     */
+    @Scheduled(fixedDelayString = "${application.tickets.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat")));
+    }
+
+    /**
+     * Reinvia a ogni connessione i conteggi completi della sua dashboard.
+     */
+    @Scheduled(fixedDelayString = "${application.tickets.stream.counts-refresh-interval-ms:300000}",
+               initialDelayString = "${application.tickets.stream.counts-refresh-interval-ms:300000}")
+    public void refreshCounts() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.offer(SseEmitter.event().name(COUNTS_EVENT).data(subscriber.counts.get()));
+            } catch (RuntimeException e) {
+                log.warn("TicketStreamService: Failed to refresh counts of connection {} of user {}", subscriber.id,
+                        subscriber.viewer.getUserId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.forEach(Subscriber::complete);
+    }
+
+    // Ogni utente può tenere aperte al massimo maxConnectionsPerUser connessioni (es. schede del browser):
+    // oltre, vengono chiuse le più vecchie
+    private void closeExcessConnections(String userId) {
+        List<Subscriber> open = subscribers.stream()
+                .filter(subscriber -> subscriber.viewer.getUserId().equals(userId))
+                .sorted(Comparator.comparingLong(subscriber -> subscriber.id))
+                .toList();
+        for (int i = 0; i <= open.size() - Math.max(1, maxConnectionsPerUser); i++) {
+            open.get(i).complete();
+        }
+    }
+
+    private static DashboardCountsDTO countsDelta(DashboardCountsDTO before, DashboardCountsDTO after) {
+        DashboardCountsDTO delta = new DashboardCountsDTO(
+                after.getTotalTickets() - before.getTotalTickets(),
+                after.getOpenTickets() - before.getOpenTickets(),
+                after.getAnsweredTickets() - before.getAnsweredTickets(),
+                after.getSolvedTickets() - before.getSolvedTickets(),
+                after.getDraftTickets() - before.getDraftTickets());
+        boolean unchanged = delta.getTotalTickets() == 0 && delta.getOpenTickets() == 0 && delta.getAnsweredTickets() == 0
+                && delta.getSolvedTickets() == 0 && delta.getDraftTickets() == 0;
+        return unchanged ? null : delta;
+    }
+
+    /**
+     * Una connessione: la coda degli eventi da inviare e il virtual thread che la svuota sull'emitter.
+     */
+    private class Subscriber implements Runnable {
+
+        private final long id;
+        private final TicketViewer viewer;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEventBuilder> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        private volatile Supplier<DashboardCountsDTO> counts;
+        private volatile DashboardCountsDTO initialCounts; // Inviati prima delle modifiche in coda
+        private volatile Thread worker;
+        private volatile boolean closed;
+
+        Subscriber(long id, TicketViewer viewer, SseEmitter emitter) {
+            this.id = id;
+            this.viewer = viewer;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEventBuilder event) {
+            if (!closed && !queue.offer(event)) {
+                log.warn("TicketStreamService: Client of user {} is too slow, closing connection {}", viewer.getUserId(), id);
+                complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                emitter.send(SseEmitter.event().name(COUNTS_EVENT).data(initialCounts));
+                while (!closed) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("TicketStreamService: Connection {} of user {} lost: {}", id, viewer.getUserId(), e.getMessage());
+                close();
+            }
+        }
+
+        // Chiusura richiesta dal server
+        void complete() {
+            close();
+            emitter.complete();
+        }
+
+        // Chiusura della connessione (anche da parte del client, per timeout o errore)
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            Thread current = worker;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
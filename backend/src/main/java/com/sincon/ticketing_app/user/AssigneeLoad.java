@@ -0,0 +1,14 @@
+package com.sincon.ticketing_app.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Possibile assegnatario di un ticket con il numero di ticket che ha in carico (vedi UserRepository.findAssigneeLoads).
+ */
+@Getter
+@AllArgsConstructor
+public class AssigneeLoad {
+    private final User user;
+    private final Long load;
+}
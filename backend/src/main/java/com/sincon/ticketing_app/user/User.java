@@ -3,6 +3,9 @@ package com.sincon.ticketing_app.user;
 import com.sincon.ticketing_app.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.util.Date;
 
 @Entity
 @Table(name = "users")
@@ -35,6 +38,11 @@ public class User{
         @Column
         private String phoneNumber;
 
+        // Ultima modifica del profilo: nome e cognome compaiono nelle risposte dei ticket, per cui entrano nel loro ETag
+        @UpdateTimestamp
+        @Temporal(TemporalType.TIMESTAMP)
+        private Date lastModifiedDate;
+
         public String getFullName() {
                 return this.firstName + " " + this.lastName;
         }
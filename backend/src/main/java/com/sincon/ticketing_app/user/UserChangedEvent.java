@@ -0,0 +1,22 @@
+package com.sincon.ticketing_app.user;
+
+import com.sincon.ticketing_app.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento pubblicato da {@link UserService} e {@link UserSynchronizer} quando cambia il ruolo di un utente (anche alla
+ * sua prima sincronizzazione dall'IdP) o l'utente viene eliminato (in questo caso {@code role} è null), per le
+ * strutture in memoria che dipendono dai ruoli (es. TicketAssignmentEngine).
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final String userId;
+    private final UserRole role;
+
+    public boolean isDeletion() {
+        return role == null;
+    }
+}
@@ -3,6 +3,7 @@ package com.sincon.ticketing_app.user;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import com.sincon.ticketing_app.enums.TicketStatus;
 import com.sincon.ticketing_app.enums.UserRole;
 
 import java.util.*;
@@ -18,4 +19,13 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Optional<User> findByEmail(String email);
 
+    // Utenti con uno dei ruoli indicati e numero di ticket a loro assegnati negli stati indicati, in una sola query
+    // (anche chi non ha ticket), dal meno carico
+    @Query("SELECT new com.sincon.ticketing_app.user.AssigneeLoad(u, COUNT(t.id)) " +
+            "FROM User u LEFT JOIN Ticket t ON t.assignedTo = u AND t.status IN :statuses " +
+            "WHERE u.role IN :roles " +
+            "GROUP BY u " +
+            "ORDER BY COUNT(t.id) ASC, u.id ASC")
+    List<AssigneeLoad> findAssigneeLoads(@Param("roles") List<UserRole> roles, @Param("statuses") List<TicketStatus> statuses);
+
 }
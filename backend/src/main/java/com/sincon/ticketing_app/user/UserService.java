@@ -3,14 +3,19 @@ package com.sincon.ticketing_app.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sincon.ticketing_app.enums.TicketStatus;
 import com.sincon.ticketing_app.enums.UserRole;
 import com.sincon.ticketing_app.exception.UserProfileNotFoundException;
+import com.sincon.ticketing_app.ticket.Ticket;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
 import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +29,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final TicketRepository ticketRepository; // Mantenuto per la logica di deleteUser
+    private final ApplicationEventPublisher eventPublisher;
 
     // Metodo per ottenere l'ID dell'utente corrente dall'autenticazione JWT
     public String getCurrentUserId(Authentication auth) {
@@ -62,6 +68,26 @@ public class UserService {
         return userRepository.findByRoleIn(roles);
     }
 
+    /**
+     * Recupera gli utenti con i ruoli indicati e il loro carico di lavoro, dal meno carico.
+     *
+     * @param roles Ruoli degli utenti da considerare.
+     * @param statuses Stati dei ticket assegnati da contare.
+     * @return Utenti e numero di ticket assegnati negli stati indicati.
+     */
+    public List<AssigneeLoad> getAssigneeLoads(List<UserRole> roles, List<TicketStatus> statuses) {
+        log.info("Fetching assignee loads for roles: {}", roles);
+        return userRepository.findAssigneeLoads(roles, statuses);
+    }
+
+    /**
+     * Riferimento all'utente senza caricarlo dal DB, per impostarlo come assegnatario di un ticket
+     * quando l'ID è già noto (es. scelto da TicketAssignmentEngine).
+     */
+    public User getUserReference(String userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
     /**
      * Recupera tutti gli utenti, escluso l'utente corrente.
      *
@@ -184,12 +210,13 @@ public class UserService {
 
         userToUpdate.setRole(newRole);
         User savedUser = userRepository.save(userToUpdate);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, newRole));
         log.info("User {} role updated to {}", savedUser.getEmail(), savedUser.getRole());
         return userMapper.toUserDTO(savedUser);
     }
 
     /**
-     * Elimina un account utente e tutti i ticket associati.
+     * Elimina un account utente e i ticket di cui è owner; i ticket a lui assegnati vengono de-assegnati.
      * Solo Admin può eliminare account, e non può eliminare altri Admin.
      *
      * @param userId ID dell'utente da eliminare.
@@ -204,12 +231,28 @@ public class UserService {
         if (userToDelete.getRole() == UserRole.ADMIN && !userId.equals(currentAdminId)) {
             throw new SecurityException("Non puoi eliminare un altro Admin.");
         }
-        // Elimina tutti i ticket associati all'utente (sia come owner che come assignedTo)
-        ticketRepository.deleteByOwner_Id(userId);
-        ticketRepository.deleteByAssignedTo_Id(userId);
-        log.info("Deleted all tickets associated with user ID: {}", userId);
+        // Elimina i ticket di cui l'utente è owner
+        List<Ticket> deletedTickets = ticketRepository.deleteByOwner_Id(userId);
+        // Come per le cancellazioni in TicketService, notifica indice di ricerca e contatori
+        deletedTickets.forEach(ticket -> eventPublisher.publishEvent(new TicketChangedEvent(TicketSnapshot.of(ticket), null)));
+        log.info("Deleted {} tickets owned by user ID: {}", deletedTickets.size(), userId);
+
+        // I ticket assegnati all'utente restano senza assegnatario (quelli già accettati tornano OPEN): dopo il commit
+        // TicketRebalancer li ridistribuisce tra gli altri assegnatari (vedi TicketRebalancer.onUserChanged)
+        List<Ticket> unassignedTickets = ticketRepository.findByAssignedTo_Id(userId);
+        for (Ticket ticket : unassignedTickets) {
+            TicketSnapshot before = TicketSnapshot.of(ticket);
+            ticket.setAssignedTo(null);
+            ticket.setAssignedDate(null);
+            if (ticket.getStatus() == TicketStatus.ANSWERED) {
+                ticket.setStatus(TicketStatus.OPEN);
+            }
+            eventPublisher.publishEvent(new TicketChangedEvent(before, TicketSnapshot.of(ticketRepository.save(ticket))));
+        }
+        log.info("Unassigned {} tickets assigned to user ID: {}", unassignedTickets.size(), userId);
 
         userRepository.delete(userToDelete);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, null));
         log.info("User {} (ID: {}) deleted successfully.", userToDelete.getEmail(), userId);
     }
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.sincon.ticketing_app.user;
 
+import com.sincon.ticketing_app.enums.UserRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.Optional;
@@ -15,13 +18,20 @@ public class UserSynchronizer {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Crea o aggiorna l'utente con i dati del token. Se il ruolo assegnato nell'IdP è diverso da quello salvato
+     * pubblica un {@link UserChangedEvent}, come UserService.updateUserRole.
+     */
+    @Transactional
     public void synchronizeWithIdp(Jwt token) {
         log.info("Synchronizing user with IDP");
         getUserEmail(token).ifPresent(userEmail -> {
             log.info("Synchronizing user having email {}", userEmail);
             Optional<User> optUser = userRepository.findByEmail(userEmail);
             Map<String, Object> attributes = token.getClaims();
+            UserRole previousRole = optUser.map(User::getRole).orElse(null);
 
             User mappedUser = userMapper.fromTokenAttributes(attributes);
 
@@ -34,7 +44,11 @@ public class UserSynchronizer {
                 return existing;
             }).orElse(mappedUser);
 
-            userRepository.save(userToPersist);
+            User savedUser = userRepository.save(userToPersist);
+            if (savedUser.getRole() != null && savedUser.getRole() != previousRole) {
+                log.info("User {} role synchronized from {} to {}", savedUser.getEmail(), previousRole, savedUser.getRole());
+                eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getRole()));
+            }
         });
     }
 
@@ -0,0 +1,110 @@
+package com.sincon.ticketing_app.assignment;
+
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.UserRole;
+import com.sincon.ticketing_app.ticket.TicketChangedEvent;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketSnapshot;
+import com.sincon.ticketing_app.user.AssigneeLoad;
+import com.sincon.ticketing_app.user.User;
+import com.sincon.ticketing_app.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica che l'assegnazione automatica resti equa sotto un picco di creazioni concorrenti.
+ */
+class TicketAssignmentEngineConcurrencyTest {
+
+    private static final int HELPERS = 8;
+    private static final int THREADS = 32;
+    private static final int TICKETS_PER_THREAD = 250;
+    private static final int TICKETS = THREADS * TICKETS_PER_THREAD;
+
+    private final AtomicLong ticketIds = new AtomicLong();
+    private TicketAssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        List<AssigneeLoad> loads = new ArrayList<>();
+        for (int i = 0; i < HELPERS; i++) {
+            User helper = User.builder().id("helper-" + i).role(UserRole.HELPER_JUNIOR).build();
+            loads.add(new AssigneeLoad(helper, 0L));
+        }
+        when(userRepository.findAssigneeLoads(any(), any())).thenReturn(loads);
+
+        engine = new TicketAssignmentEngine(userRepository, mock(TicketRepository.class));
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "multiNode", false);
+        engine.resync();
+    }
+
+    @Test
+    void concurrentReservationsAreSpreadEvenly() throws Exception {
+        // Nessun commit durante il picco: solo le prenotazioni impediscono di scegliere tutti lo stesso helper
+        runConcurrently(() -> engine.reserveLeastLoaded().orElseThrow());
+
+        for (int i = 0; i < HELPERS; i++) {
+            assertEquals(TICKETS / HELPERS, engine.getLoad("helper-" + i), "helper-" + i);
+        }
+    }
+
+    @Test
+    void concurrentCreatesAreSpreadEvenly() throws Exception {
+        // Ciclo completo di una creazione: prenotazione, commit (evento AFTER_COMMIT), fine transazione
+        runConcurrently(() -> {
+            String assignee = engine.reserveLeastLoaded().orElseThrow();
+            engine.onTicketChanged(new TicketChangedEvent(null, TicketSnapshot.builder()
+                    .id(ticketIds.incrementAndGet())
+                    .status(TicketStatus.OPEN)
+                    .assignedToId(assignee)
+                    .build()));
+            engine.release(assignee);
+        });
+
+        for (int i = 0; i < HELPERS; i++) {
+            assertEquals(TICKETS / HELPERS, engine.getLoad("helper-" + i), "helper-" + i);
+        }
+    }
+
+    private void runConcurrently(Runnable assignment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TICKETS_PER_THREAD; i++) {
+                        assignment.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.sincon.ticketing_app.assignment;
+
+import com.sincon.ticketing_app.category.Category;
+import com.sincon.ticketing_app.category.CategoryService;
+import com.sincon.ticketing_app.enums.TicketStatus;
+import com.sincon.ticketing_app.enums.UserRole;
+import com.sincon.ticketing_app.notification.EmailService;
+import com.sincon.ticketing_app.routing.TicketRoutingService;
+import com.sincon.ticketing_app.supportservice.SupportService;
+import com.sincon.ticketing_app.supportservice.SupportServiceService;
+import com.sincon.ticketing_app.ticket.Ticket;
+import com.sincon.ticketing_app.ticket.TicketCountEstimator;
+import com.sincon.ticketing_app.ticket.TicketExportWriter;
+import com.sincon.ticketing_app.ticket.TicketMapper;
+import com.sincon.ticketing_app.ticket.TicketRepository;
+import com.sincon.ticketing_app.ticket.TicketRequestDTO;
+import com.sincon.ticketing_app.ticket.TicketSearchIndex;
+import com.sincon.ticketing_app.ticket.TicketService;
+import com.sincon.ticketing_app.ticketCounter.TicketCountCache;
+import com.sincon.ticketing_app.ticketCounter.TicketCounterService;
+import com.sincon.ticketing_app.user.AssigneeLoad;
+import com.sincon.ticketing_app.user.User;
+import com.sincon.ticketing_app.user.UserRepository;
+import com.sincon.ticketing_app.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica l'equità dell'assegnazione automatica passando da TicketService.createOrUpdateTicket, con transazioni ed
+ * eventi AFTER_COMMIT gestiti da Spring: sia con il motore in memoria (prenotazione nella transazione di creazione,
+ * aggiornamento del carico dopo il commit) sia con la scelta dal DB sotto lock (multi-node).
+ * Il DB è simulato: i ticket salvati diventano visibili al commit e il lock di Postgres è un semaforo tenuto fino
+ * alla fine della transazione. Nel test del motore le transazioni restano aperte finché non ce ne sono THREADS in
+ * corso, per cui solo le prenotazioni evitano che le scelte concorrenti finiscano sullo stesso assegnatario.
+ */
+class TicketServiceAssignmentConcurrencyTest {
+
+    private static final int HELPERS = 8;
+    private static final int THREADS = 16;
+    private static final int TICKETS_PER_THREAD = 100;
+    private static final int TICKETS = THREADS * TICKETS_PER_THREAD;
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void concurrentCreatesThroughEngineAreSpreadEvenly() throws Exception {
+        start(false);
+        context.getBean(TicketAssignmentEngine.class).resync();
+        // Ogni creazione attende dentro la transazione le altre THREADS - 1: senza prenotazioni sceglierebbero
+        // tutte lo stesso assegnatario
+        context.getBean(FakeDatabase.class).holdTransactionsOpen(THREADS);
+
+        runConcurrentCreates();
+
+        assertEvenlyAssigned();
+    }
+
+    @Test
+    void concurrentCreatesThroughDatabaseLockAreSpreadEvenly() throws Exception {
+        start(true);
+        // Senza il lock le creazioni concorrenti leggerebbero gli stessi carichi prima dei commit delle altre
+        context.getBean(FakeDatabase.class).checkSerializedCommits();
+
+        runConcurrentCreates();
+
+        assertEvenlyAssigned();
+        // Con il lock le assegnazioni sono serializzate: dopo ogni commit i carichi differiscono al più di uno
+        assertEquals(0, context.getBean(FakeDatabase.class).unevenCommits());
+    }
+
+    private void start(boolean multiNode) {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "application.tickets.assignment-engine.enabled", "true",
+                "application.tickets.assignment-engine.multi-node", String.valueOf(multiNode))));
+        context.register(TestConfig.class);
+        context.refresh();
+    }
+
+    private void runConcurrentCreates() throws Exception {
+        TicketService ticketService = context.getBean(TicketService.class);
+        Authentication auth = new UsernamePasswordAuthenticationToken("owner", null,
+                List.of(new SimpleGrantedAuthority(UserRole.USER.name())));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TICKETS_PER_THREAD; i++) {
+                        ticketService.createOrUpdateTicket(TicketRequestDTO.builder()
+                                .title("Ticket")
+                                .email("owner@example.com")
+                                .categoryId(1L)
+                                .supportServiceId(1L)
+                                .status(TicketStatus.OPEN)
+                                .build(), auth, null);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertEvenlyAssigned() {
+        FakeDatabase database = context.getBean(FakeDatabase.class);
+        for (int i = 0; i < HELPERS; i++) {
+            assertEquals(TICKETS / HELPERS, database.committedLoad("helper-" + i), "helper-" + i);
+        }
+    }
+
+    /**
+     * Carichi committati e lock di assegnazione, con la stessa visibilità di Postgres: un ticket salvato conta solo
+     * dopo il commit, e il lock viene rilasciato dopo che il commit è visibile.
+     */
+    static class FakeDatabase {
+
+        private final List<User> helpers = new ArrayList<>();
+        private final Map<String, AtomicLong> loads = new ConcurrentHashMap<>();
+        private final AtomicLong ticketIds = new AtomicLong();
+        private final Semaphore assignmentLock = new Semaphore(1);
+        private final AtomicLong unevenCommits = new AtomicLong();
+        private volatile CyclicBarrier openTransactions;
+        private volatile boolean serializedCommits;
+
+        FakeDatabase() {
+            for (int i = 0; i < HELPERS; i++) {
+                User helper = User.builder().id("helper-" + i).role(UserRole.HELPER_JUNIOR).build();
+                helpers.add(helper);
+                loads.put(helper.getId(), new AtomicLong());
+            }
+        }
+
+        void holdTransactionsOpen(int parties) {
+            openTransactions = new CyclicBarrier(parties);
+        }
+
+        void checkSerializedCommits() {
+            serializedCommits = true;
+        }
+
+        Ticket save(Ticket ticket) throws Exception {
+            ticket.setId(ticketIds.incrementAndGet());
+            String assigneeId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (assigneeId != null) {
+                        loads.get(assigneeId).incrementAndGet();
+                    }
+                    if (serializedCommits && spread() > 1) {
+                        unevenCommits.incrementAndGet();
+                    }
+                }
+            });
+            if (openTransactions != null) {
+                openTransactions.await(30, TimeUnit.SECONDS);
+            }
+            if (serializedCommits) {
+                Thread.sleep(1);
+            }
+            return ticket;
+        }
+
+        Integer lock() throws InterruptedException {
+            assignmentLock.acquire();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    assignmentLock.release();
+                }
+            });
+            return 1;
+        }
+
+        List<AssigneeLoad> assigneeLoads() {
+            return helpers.stream().map(helper -> new AssigneeLoad(helper, loads.get(helper.getId()).get())).toList();
+        }
+
+        long committedLoad(String userId) {
+            return loads.get(userId).get();
+        }
+
+        long unevenCommits() {
+            return unevenCommits.get();
+        }
+
+        private long spread() {
+            LongSummaryStatistics stats = loads.values().stream().mapToLong(AtomicLong::get).summaryStatistics();
+            return stats.getMax() - stats.getMin();
+        }
+    }
+
+    /**
+     * Transaction manager senza risorse: fornisce solo il ciclo di vita della transazione e le sincronizzazioni.
+     */
+    static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, org.springframework.transaction.TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+
+        @Bean
+        FakeDatabase fakeDatabase() {
+            return new FakeDatabase();
+        }
+
+        @Bean
+        TicketRepository ticketRepository(FakeDatabase database) throws InterruptedException {
+            TicketRepository ticketRepository = mock(TicketRepository.class);
+            when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> database.save(invocation.getArgument(0)));
+            when(ticketRepository.acquireAdvisoryXactLock(anyLong())).thenAnswer(invocation -> database.lock());
+            return ticketRepository;
+        }
+
+        @Bean
+        UserRepository userRepository(FakeDatabase database) {
+            UserRepository userRepository = mock(UserRepository.class);
+            when(userRepository.findAssigneeLoads(any(), any())).thenAnswer(invocation -> database.assigneeLoads());
+            return userRepository;
+        }
+
+        @Bean
+        UserService userService(FakeDatabase database) {
+            User owner = User.builder().id("owner").email("owner@example.com").role(UserRole.USER).build();
+            UserService userService = mock(UserService.class);
+            when(userService.findUserById("owner")).thenReturn(Optional.of(owner));
+            when(userService.findUserByEmail("owner@example.com")).thenReturn(Optional.of(owner));
+            when(userService.getUserReference(anyString()))
+                    .thenAnswer(invocation -> User.builder().id(invocation.getArgument(0)).build());
+            when(userService.getAssigneeLoads(any(), any())).thenAnswer(invocation -> database.assigneeLoads());
+            return userService;
+        }
+
+        @Bean
+        CategoryService categoryService() {
+            CategoryService categoryService = mock(CategoryService.class);
+            Category category = new Category();
+            category.setId(1L);
+            when(categoryService.findById(1L)).thenReturn(Optional.of(category));
+            return categoryService;
+        }
+
+        @Bean
+        SupportServiceService supportServiceService() {
+            SupportServiceService supportServiceService = mock(SupportServiceService.class);
+            SupportService supportService = new SupportService();
+            supportService.setId(1L);
+            when(supportServiceService.findById(1L)).thenReturn(Optional.of(supportService));
+            return supportServiceService;
+        }
+
+        @Bean
+        TicketRoutingService ticketRoutingService() {
+            TicketRoutingService ticketRoutingService = mock(TicketRoutingService.class);
+            when(ticketRoutingService.getCandidates(any(), any())).thenReturn(Map.of());
+            return ticketRoutingService;
+        }
+
+        @Bean
+        TicketAssignmentEngine ticketAssignmentEngine(UserRepository userRepository, TicketRepository ticketRepository) {
+            return new TicketAssignmentEngine(userRepository, ticketRepository);
+        }
+
+        @Bean
+        TicketService ticketService(TicketRepository ticketRepository, UserService userService,
+                                    CategoryService categoryService, SupportServiceService supportServiceService,
+                                    org.springframework.context.ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    TicketAssignmentEngine ticketAssignmentEngine,
+                                    TicketRoutingService ticketRoutingService) {
+            return new TicketService(ticketRepository, mock(TicketMapper.class), userService, categoryService,
+                    supportServiceService, mock(EmailService.class), eventPublisher, mock(TicketSearchIndex.class),
+                    mock(TicketCountEstimator.class), mock(TicketExportWriter.class), transactionManager,
+                    mock(TicketCounterService.class), mock(TicketCountCache.class), ticketAssignmentEngine,
+                    ticketRoutingService);
+        }
+    }
+}